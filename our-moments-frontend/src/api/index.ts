@@ -1,5 +1,5 @@
 import { get, post, put, del, upload } from './request'
-import type { User, BlogPost, Category, Tag, AuthRequest, UploadResponse, Comment, AppNotification, Message } from '@/types'
+import type { User, BlogPost, Category, Tag, AuthRequest, UploadResponse, Comment, AppNotification, Message, CursorPage, ConversationSummary, PostSummary } from '@/types'
 
 // 认证相关 API
 export const authApi = {
@@ -47,6 +47,15 @@ export interface PostRequest {
 export const postApi = {
     getPosts: (params?: { userId?: number; categoryId?: number; status?: number }) =>
         get<BlogPost[]>('/posts', params),
+    // 列表页使用的卡片，不含正文全文和拼贴数据
+    getPostSummaries: (params?: { userId?: number }) =>
+        get<PostSummary[]>('/posts', { ...params, view: 'summary' }),
+    // 首页分页卡片：传回上一页的 nextCursorTime / nextCursorId 继续
+    getFeedSummaries: (params?: { userId?: number; cursorTime?: string; cursorId?: number; size?: number }) =>
+        get<CursorPage<PostSummary>>('/posts/feed', { ...params, view: 'summary' }),
+    // 登录用户的首页：自己和好友写扩散到时间线的卡片
+    getTimelineSummaries: (params?: { cursorTime?: string; cursorId?: number; size?: number }) =>
+        get<CursorPage<PostSummary>>('/posts/timeline', { ...params, view: 'summary' }),
     getPost: (id: number) => get<BlogPost>(`/posts/${id}`),
     createPost: (data: PostRequest) => post<BlogPost>('/posts', data),
     updatePost: (id: number, data: PostRequest) => put<BlogPost>(`/posts/${id}`, data),
@@ -56,6 +65,7 @@ export const postApi = {
 // 草稿相关 API
 export const draftApi = {
     getDrafts: () => get<BlogPost[]>('/drafts'),
+    getDraftSummaries: () => get<PostSummary[]>('/drafts', { view: 'summary' }),
     getLatestDraft: () => get<BlogPost>('/drafts/latest'),
 }
 
@@ -141,8 +151,14 @@ export const messageApi = {
         post<Message>('/messages/send', null, { params: { receiverId, content } }),
     getChatHistory: (friendId: number) =>
         get<Message[]>(`/messages/history`, { friendId }),
+    getChatHistoryPage: (friendId: number, before?: number, limit = 30) =>
+        get<CursorPage<Message>>(`/messages/history/page`, { friendId, before, limit }),
+    getConversations: (before?: number, limit = 20) =>
+        get<CursorPage<ConversationSummary>>(`/messages/conversations`, { before, limit }),
     getUnreadMessages: () =>
         get<Message[]>(`/messages/unread`),
+    getUnreadMessageCount: () =>
+        get<number>(`/messages/unread-count`),
     markAsRead: (senderId: number) =>
         put<void>(`/messages/read`, null, { params: { senderId } }),
     deleteMessage: (messageId: number) =>
@@ -162,6 +178,8 @@ export const adminApi = {
 
     // 帖子管理
     getAllPosts: () => get<BlogPost[]>('/admin/posts'),
+    getPostSummaries: () => get<PostSummary[]>('/admin/posts', { view: 'summary' }),
+    getPost: (postId: number) => get<BlogPost>(`/admin/posts/${postId}`),
     updatePost: (postId: number, data: Partial<PostRequest>) =>
         put<BlogPost>(`/admin/posts/${postId}`, data),
     deletePost: (postId: number) => del<void>(`/admin/posts/${postId}`),
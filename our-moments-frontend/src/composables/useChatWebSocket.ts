@@ -13,23 +13,31 @@ interface ChatWebSocketConfig {
   heartbeatOutgoing?: number
 }
 
-interface ChatMessage {
+export interface ChatMessage {
   senderId: number
   receiverId: number
   content: string
   timestamp: string
+  // 服务端落库后的消息 ID；回执中缺失表示保存失败
+  messageId?: number
+  // 客户端生成，服务端在回执中原样带回
+  clientMessageId?: string
 }
 
 interface ChatWebSocketHook {
   connect: () => void
   disconnect: () => void
   sendMessage: (message: ChatMessage) => void
+  sendMessageAndWait: (message: ChatMessage) => Promise<ChatMessage>
   isConnected: Ref<boolean>
   error: Ref<string | null>
   messages: Ref<ChatMessage[]>
 }
 
 // 默认配置
+// 等待服务端落库回执的超时时间
+const ACK_TIMEOUT = 10000
+
 const DEFAULT_CONFIG: ChatWebSocketConfig = {
   url: import.meta.env.VITE_WS_BASE_URL || '/ws',
   reconnectDelay: 5000,
@@ -43,6 +51,7 @@ export function useChatWebSocket(config: ChatWebSocketConfig = DEFAULT_CONFIG):
   const stompClient = ref<Client | null>(null)
   const reconnectTimeout = ref<number | null>(null)
   const messages = ref<ChatMessage[]>([])
+  const pendingAcks = new Map<string, { resolve: (ack: ChatMessage) => void, reject: (err: Error) => void, timer: number }>()
 
   const userStore = useUserStore()
   const notificationStore = useNotificationStore()
@@ -105,13 +114,19 @@ export function useChatWebSocket(config: ChatWebSocketConfig = DEFAULT_CONFIG):
     if (userStore.user?.userId && stompClient.value) {
       // 订阅聊天消息
       stompClient.value.subscribe(
-        `/user/${userStore.user.userId}/queue/messages`,
+        `/user/queue/messages`,
         onMessageReceived
       )
 
+      // 订阅自己发送消息的落库回执
+      stompClient.value.subscribe(
+        `/user/queue/message-acks`,
+        onAckReceived
+      )
+
       // 订阅通知
       stompClient.value.subscribe(
-        `/user/${userStore.user.userId}/queue/notifications`,
+        `/user/queue/notifications`,
         onNotificationReceived
       )
     }
@@ -139,6 +154,24 @@ export function useChatWebSocket(config: ChatWebSocketConfig = DEFAULT_CONFIG):
     }
   }
 
+  // 回执接收回调
+  const onAckReceived = (payload: any) => {
+    try {
+      const ack: ChatMessage = JSON.parse(payload.body)
+      const pending = ack.clientMessageId ? pendingAcks.get(ack.clientMessageId) : undefined
+      if (!pending) return
+      pendingAcks.delete(ack.clientMessageId!)
+      clearTimeout(pending.timer)
+      if (ack.messageId) {
+        pending.resolve(ack)
+      } else {
+        pending.reject(new Error('Message was not saved'))
+      }
+    } catch (err) {
+      console.error('Failed to parse message ack:', err)
+    }
+  }
+
   // 通知接收回调
   const onNotificationReceived = (payload: any) => {
     try {
@@ -164,6 +197,26 @@ export function useChatWebSocket(config: ChatWebSocketConfig = DEFAULT_CONFIG):
     })
   }
 
+  // 发送消息，并在服务端落库后 resolve（带 messageId）
+  const sendMessageAndWait = (message: ChatMessage): Promise<ChatMessage> => {
+    if (!stompClient.value || !isConnected.value) {
+      return Promise.reject(new Error('WebSocket not connected'))
+    }
+
+    const clientMessageId = `${Date.now()}-${Math.random().toString(36).slice(2)}`
+    return new Promise<ChatMessage>((resolve, reject) => {
+      const timer = window.setTimeout(() => {
+        pendingAcks.delete(clientMessageId)
+        reject(new Error('Timed out waiting for message ack'))
+      }, ACK_TIMEOUT)
+      pendingAcks.set(clientMessageId, { resolve, reject, timer })
+      stompClient.value!.publish({
+        destination: '/app/chat',
+        body: JSON.stringify({ ...message, clientMessageId })
+      })
+    })
+  }
+
   // 错误处理
   const handleError = (errorMsg: string) => {
     error.value = errorMsg
@@ -188,6 +241,7 @@ export function useChatWebSocket(config: ChatWebSocketConfig = DEFAULT_CONFIG):
     connect,
     disconnect,
     sendMessage,
+    sendMessageAndWait,
     isConnected,
     error,
     messages
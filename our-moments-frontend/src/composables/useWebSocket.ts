@@ -95,7 +95,7 @@ export function useWebSocket(config: WebSocketConfig = DEFAULT_CONFIG): WebSocke
     // 订阅用户特定的通知频道
     if (userStore.user?.userId && stompClient.value) {
       stompClient.value.subscribe(
-        `/user/${userStore.user.userId}/queue/notifications`,
+        `/user/queue/notifications`,
         onNotificationReceived
       )
     }
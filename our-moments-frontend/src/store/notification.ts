@@ -81,6 +81,11 @@ export const useNotificationStore = defineStore('notification', () => {
   }
 
   function addNotification(notification: AppNotification) {
+    // 服务端 outbox 至少投递一次，重复推送按 notificationId 去重
+    if (notifications.value.some(n => n.notificationId === notification.notificationId)) {
+      return
+    }
+
     // 将新通知添加到列表顶部
     notifications.value.unshift(notification)
 
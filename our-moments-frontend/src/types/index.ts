@@ -64,6 +64,33 @@ export interface BlogPost {
   author: User
 }
 
+// 列表中展示的作者信息（不含密码、邮箱）
+export interface AuthorSummary {
+  userId: number
+  nickname: string
+  avatar?: string
+}
+
+// 日志卡片：列表接口 view=summary 的返回，只有摘要、封面和标签名
+export interface PostSummary {
+  postId: number
+  userId: number
+  categoryId: number
+  title: string
+  excerpt: string
+  weather: string
+  mood: string
+  location: string
+  status: number
+  visibility: string
+  createTime: string
+  updateTime: string
+  coverUrl?: string
+  mediaCount: number
+  tagNames: string[]
+  author?: AuthorSummary
+}
+
 // 认证请求类型
 export interface AuthRequest {
   username: string
@@ -138,3 +165,23 @@ export interface Message {
   createTime: string
   updateTime: string
 }
+
+// 收件箱中的会话摘要
+export interface ConversationSummary {
+  peerId: number
+  peerNickname: string
+  peerAvatar?: string
+  lastMessageId: number
+  lastSenderId: number
+  lastPreview: string
+  lastTime: string
+  unreadCount: number
+}
+
+// 游标分页结果，把 nextCursorId 原样带回即可取下一页
+export interface CursorPage<T> {
+  items: T[]
+  nextCursorTime: string | null
+  nextCursorId: number | null
+  hasMore: boolean
+}
@@ -1,4 +1,4 @@
-import type { BlogPost, User, Category, Tag, BlogMedia } from '@/types'
+import type { BlogPost, PostSummary, User, Category, Tag, BlogMedia } from '@/types'
 
 /**
  * Mock 数据生成工具
@@ -239,3 +239,31 @@ export function generateMockPosts(count: number): BlogPost[] {
   }
   return posts
 }
+
+/**
+ * 把完整日志转换成列表卡片（与后端 view=summary 的返回一致）
+ */
+export function toPostSummary(post: BlogPost): PostSummary {
+  return {
+    postId: post.postId,
+    userId: post.userId,
+    categoryId: post.categoryId,
+    title: post.title,
+    excerpt: (post.content || '').slice(0, 200),
+    weather: post.weather,
+    mood: post.mood,
+    location: post.location,
+    status: post.status,
+    visibility: post.visibility,
+    createTime: post.createTime,
+    updateTime: post.updateTime,
+    coverUrl: post.mediaList?.[0]?.mediaUrl,
+    mediaCount: post.mediaList?.length || 0,
+    tagNames: (post.tagList || []).map(tag => tag.name),
+    author: post.author
+      ? { userId: post.author.userId, nickname: post.author.nickname, avatar: post.author.avatar }
+      : undefined
+  }
+}
+
+export const mockPostSummaries: PostSummary[] = mockPosts.map(toPostSummary)
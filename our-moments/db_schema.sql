@@ -249,3 +249,66 @@ ALTER TABLE sys_user ADD COLUMN IF NOT EXISTS `role` VARCHAR(20) DEFAULT 'USER'
 INSERT INTO sys_user (username, password, nickname, avatar, bio, email, role, create_time, update_time)
 VALUES ('superadmin', 'admin123', '超级管理员', 'https://api.dicebear.com/7.x/adventurer/svg?seed=superadmin', '系统超级管理员', 'admin@ourmoments.com', 'ADMIN', NOW(), NOW())
 ON DUPLICATE KEY UPDATE role = 'ADMIN';
+
+-- Keyset pagination indexes for the post feed: (create_time, post_id) cursor
+ALTER TABLE blog_post ADD INDEX IF NOT EXISTS `idx_create_time_post` (`create_time`, `post_id`);
+ALTER TABLE blog_post ADD INDEX IF NOT EXISTS `idx_user_create_time_post` (`user_id`, `create_time`, `post_id`);
+
+-- Create timeline (inbox) table: one row per (reader, post), written when a post is published
+CREATE TABLE IF NOT EXISTS blog_timeline (
+    user_id BIGINT NOT NULL COMMENT '时间线所有者',
+    post_id BIGINT NOT NULL COMMENT '日志ID',
+    author_id BIGINT NOT NULL COMMENT '作者ID',
+    create_time DATETIME NOT NULL COMMENT '日志发布时间（冗余，用于排序）',
+    PRIMARY KEY (user_id, post_id),
+    INDEX idx_user_time (user_id, create_time, post_id),
+    INDEX idx_user_author (user_id, author_id),
+    INDEX idx_post_id (post_id)
+);
+
+-- Transactional outbox: written in the same transaction as the business change, drained by OutboxServiceImpl after commit
+CREATE TABLE IF NOT EXISTS sys_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL COMMENT 'NOTIFICATION_PUSH, NEW_POST_EMAIL',
+    payload MEDIUMTEXT NOT NULL COMMENT 'JSON 数组，一行携带一批通知或邮件',
+    status TINYINT NOT NULL DEFAULT 0 COMMENT '0:待投递 2:超过重试次数',
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500) DEFAULT NULL,
+    next_attempt_time DATETIME NOT NULL,
+    create_time DATETIME NOT NULL,
+    INDEX idx_status_next (status, next_attempt_time, outbox_id)
+);
+
+-- Canonical conversation key for chat history: "smaller user id:larger user id", maintained by the database
+ALTER TABLE sys_message ADD COLUMN IF NOT EXISTS `conversation_key` VARCHAR(41)
+    AS (CONCAT(LEAST(sender_id, receiver_id), ':', GREATEST(sender_id, receiver_id))) STORED AFTER `receiver_id`;
+ALTER TABLE sys_message ADD INDEX IF NOT EXISTS `idx_conversation_message` (`conversation_key`, `message_id`);
+
+-- Conversation summaries for the inbox: one row per participant, maintained by MessageServiceImpl
+CREATE TABLE IF NOT EXISTS sys_conversation (
+    user_id BIGINT NOT NULL COMMENT '会话所属用户',
+    peer_id BIGINT NOT NULL COMMENT '对方用户',
+    last_message_id BIGINT NOT NULL COMMENT '最后一条消息ID，也是收件箱分页游标',
+    last_sender_id BIGINT NOT NULL,
+    last_preview VARCHAR(100) NOT NULL COMMENT '最后一条消息的前100个字符',
+    last_time DATETIME NOT NULL,
+    unread_count INT NOT NULL DEFAULT 0 COMMENT 'user_id 未读的来自 peer_id 的消息数',
+    PRIMARY KEY (user_id, peer_id),
+    INDEX idx_user_last_message (user_id, last_message_id)
+);
+
+-- Backfill summaries from existing messages (idempotent)
+INSERT IGNORE INTO sys_conversation (user_id, peer_id, last_message_id, last_sender_id, last_preview, last_time, unread_count)
+SELECT t.user_id, t.peer_id, m.message_id, m.sender_id, LEFT(m.content, 100), m.create_time,
+       (SELECT COUNT(*) FROM sys_message u WHERE u.receiver_id = t.user_id AND u.sender_id = t.peer_id AND u.is_read = false)
+FROM (SELECT user_id, peer_id, MAX(message_id) AS last_message_id
+      FROM (SELECT sender_id AS user_id, receiver_id AS peer_id, message_id FROM sys_message
+            UNION ALL
+            SELECT receiver_id, sender_id, message_id FROM sys_message) pairs
+      GROUP BY user_id, peer_id) t
+JOIN sys_message m ON m.message_id = t.last_message_id;
+
+-- ETag version counters: bumped by every UPDATE, so two edits within the same second still change the ETag
+ALTER TABLE blog_post ADD COLUMN IF NOT EXISTS `version` INT NOT NULL DEFAULT 0 COMMENT '日志内容版本，每次修改 +1';
+ALTER TABLE blog_post ADD COLUMN IF NOT EXISTS `comment_version` INT NOT NULL DEFAULT 0 COMMENT '评论列表版本，评论增删改 +1';
+ALTER TABLE sys_user ADD COLUMN IF NOT EXISTS `version` INT NOT NULL DEFAULT 0 COMMENT '资料版本，每次修改 +1';
@@ -0,0 +1,296 @@
+package com.gravity.ourmoments.cache;
+
+import com.gravity.ourmoments.entity.Category;
+import com.gravity.ourmoments.entity.Tag;
+import com.gravity.ourmoments.mapper.CategoryMapper;
+import com.gravity.ourmoments.mapper.TagMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 分类和标签的字典缓存：启动时整表加载，之后读操作只读不可变快照，写操作复制后整体替换（copy-on-write）。
+ * <p>
+ * 按 id 未命中时总是回源：多节点部署时其他节点新建的分类和标签不会出现在本节点的快照里。
+ * 其他节点的删除和改名由周期性整表重载收敛，延迟不超过 refresh-interval-ms。
+ * 写操作在事务提交后才生效，回滚的插入不会留下不存在的 id。返回的实体请勿修改。
+ */
+@Slf4j
+@Component
+public class DictionaryCache {
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    private volatile Snapshot<Category> categories = Snapshot.empty();
+    private volatile Snapshot<Tag> tags = Snapshot.empty();
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            loadCategories();
+            loadTags();
+            log.info("Dictionary cache loaded: {} categories, {} tags", categories.byId.size(), tags.byId.size());
+        } catch (Exception e) {
+            log.warn("Dictionary cache warm-up failed, falling back to read-through", e);
+        }
+    }
+
+    /**
+     * 整表重载，收敛其他节点的删除和改名
+     */
+    @Scheduled(fixedDelayString = "${app.dictionary-cache.refresh-interval-ms:300000}",
+            initialDelayString = "${app.dictionary-cache.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            loadCategories();
+            loadTags();
+        } catch (RuntimeException e) {
+            log.warn("Dictionary cache refresh failed", e);
+        }
+    }
+
+    // ---------- categories ----------
+
+    public Category getCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return getCategories(Collections.singletonList(categoryId)).get(categoryId);
+    }
+
+    public Map<Long, Category> getCategories(Collection<Long> categoryIds) {
+        Snapshot<Category> snapshot = categories;
+        Map<Long, Category> found = new HashMap<>();
+        List<Long> missing = snapshot.lookup(categoryIds, found);
+        if (!missing.isEmpty()) {
+            List<Category> loaded = categoryMapper.findByIds(missing);
+            for (Category category : loaded) {
+                found.put(category.getCategoryId(), category);
+            }
+            putCategories(loaded);
+        }
+        return found;
+    }
+
+    public Long getCategoryIdByName(String name) {
+        Snapshot<Category> snapshot = completeCategories();
+        return snapshot.idByName(name);
+    }
+
+    /**
+     * All categories ordered by sort_order, as CategoryMapper.findAll returns them.
+     */
+    public List<Category> getAllCategories() {
+        List<Category> all = new ArrayList<>(completeCategories().byId.values());
+        all.sort(Comparator.comparing(Category::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+        return all;
+    }
+
+    /**
+     * Reloads the category table after the current transaction commits.
+     */
+    public void refreshCategories() {
+        afterCommit(this::loadCategories);
+    }
+
+    // ---------- tags ----------
+
+    public Tag getTag(Long tagId) {
+        if (tagId == null) {
+            return null;
+        }
+        return getTags(Collections.singletonList(tagId)).get(tagId);
+    }
+
+    public Map<Long, Tag> getTags(Collection<Long> tagIds) {
+        Snapshot<Tag> snapshot = tags;
+        Map<Long, Tag> found = new HashMap<>();
+        List<Long> missing = snapshot.lookup(tagIds, found);
+        if (!missing.isEmpty()) {
+            List<Tag> loaded = tagMapper.findByIds(missing);
+            for (Tag tag : loaded) {
+                found.put(tag.getTagId(), tag);
+            }
+            putTags(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * Case-insensitive like the uk_name collation. Returns null when the name is not cached; the caller
+     * should fall back to the database, the tag may have been created on another node.
+     */
+    public Tag getTagByName(String name) {
+        Snapshot<Tag> snapshot = tags;
+        Long tagId = snapshot.idByName(name);
+        return tagId != null ? snapshot.byId.get(tagId) : null;
+    }
+
+    /**
+     * All tags newest first, as TagMapper.findAll returns them.
+     */
+    public List<Tag> getAllTags() {
+        List<Tag> all = new ArrayList<>(completeTags().byId.values());
+        // 刚创建、还没有 create_time 的标签排在最前
+        all.sort(Comparator.comparing(Tag::getCreateTime,
+                Comparator.nullsFirst(Comparator.<LocalDateTime>reverseOrder())));
+        return all;
+    }
+
+    public void putTags(Collection<Tag> added) {
+        if (added == null || added.isEmpty()) {
+            return;
+        }
+        List<Tag> copy = new ArrayList<>(added);
+        afterCommit(() -> {
+            synchronized (this) {
+                tags = tags.with(copy, Tag::getTagId, Tag::getName);
+            }
+        });
+    }
+
+    public void removeTag(Long tagId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                tags = tags.without(tagId, Tag::getName);
+            }
+        });
+    }
+
+    // ---------- loading ----------
+
+    private synchronized void loadCategories() {
+        categories = Snapshot.of(categoryMapper.findAll(), Category::getCategoryId, Category::getName);
+    }
+
+    private synchronized void loadTags() {
+        tags = Snapshot.of(tagMapper.findAll(), Tag::getTagId, Tag::getName);
+    }
+
+    private void putCategories(Collection<Category> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        List<Category> copy = new ArrayList<>(added);
+        afterCommit(() -> {
+            synchronized (this) {
+                categories = categories.with(copy, Category::getCategoryId, Category::getName);
+            }
+        });
+    }
+
+    private Snapshot<Category> completeCategories() {
+        if (!categories.complete) {
+            loadCategories();
+        }
+        return categories;
+    }
+
+    private Snapshot<Tag> completeTags() {
+        if (!tags.complete) {
+            loadTags();
+        }
+        return tags;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 不可变快照：id → 实体，小写名称 → id
+     */
+    private static final class Snapshot<T> {
+        final Map<Long, T> byId;
+        final Map<String, Long> idsByName;
+        final boolean complete;
+
+        private Snapshot(Map<Long, T> byId, Map<String, Long> idsByName, boolean complete) {
+            this.byId = byId;
+            this.idsByName = idsByName;
+            this.complete = complete;
+        }
+
+        static <T> Snapshot<T> empty() {
+            return new Snapshot<>(Collections.emptyMap(), Collections.emptyMap(), false);
+        }
+
+        static <T> Snapshot<T> of(Collection<T> values, Function<T, Long> id, Function<T, String> name) {
+            return new Snapshot<T>(new HashMap<>(), new HashMap<>(), true).copyWith(values, id, name);
+        }
+
+        Snapshot<T> with(Collection<T> values, Function<T, Long> id, Function<T, String> name) {
+            return new Snapshot<T>(new HashMap<>(byId), new HashMap<>(idsByName), complete).copyWith(values, id, name);
+        }
+
+        Snapshot<T> without(Long removedId, Function<T, String> name) {
+            T removed = byId.get(removedId);
+            if (removed == null) {
+                return this;
+            }
+            Map<Long, T> ids = new HashMap<>(byId);
+            Map<String, Long> names = new HashMap<>(idsByName);
+            ids.remove(removedId);
+            names.remove(key(name.apply(removed)));
+            return new Snapshot<>(Collections.unmodifiableMap(ids), Collections.unmodifiableMap(names), complete);
+        }
+
+        private Snapshot<T> copyWith(Collection<T> values, Function<T, Long> id, Function<T, String> name) {
+            for (T value : values) {
+                byId.put(id.apply(value), value);
+                if (name.apply(value) != null) {
+                    idsByName.put(key(name.apply(value)), id.apply(value));
+                }
+            }
+            return new Snapshot<>(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(idsByName), complete);
+        }
+
+        /**
+         * Fills {@code found} with cached entries and returns the ids that must be read from the database.
+         */
+        List<Long> lookup(Collection<Long> ids, Map<Long, T> found) {
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                T value = byId.get(id);
+                if (value != null) {
+                    found.put(id, value);
+                } else {
+                    missing.add(id);
+                }
+            }
+            return missing;
+        }
+
+        Long idByName(String name) {
+            return name != null ? idsByName.get(key(name.trim())) : null;
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.gravity.ourmoments.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.gravity.ourmoments.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 按观看者划分的游标分页日志缓存（TTL 淘汰），由日志和好友关系变更事件精确失效。
+ * 失效事件只在本节点发布，多节点部署时其他节点的变更由 TTL 兜底，最多延迟 ttl-seconds。
+ * <p>
+ * 只缓存有界的 keyset 页，不缓存不分页的整表列表；容量按缓存的日志条数加权，而不是条目数，
+ * 大页和小页占用的配额与实际内存大致成正比。返回的 items 是只读列表，调用方不能改动缓存里的内容。
+ */
+@Component
+public class FeedCache {
+
+    /**
+     * FEED 为可见性过滤后的全站/作者列表，TIMELINE 为读者的写扩散时间线；SUMMARY 为卡片投影
+     */
+    public enum View {
+        FEED, FEED_SUMMARY, TIMELINE, TIMELINE_SUMMARY
+    }
+
+    /**
+     * viewerId 为 null 表示匿名访客，authorId 为 null 表示全站列表或时间线；cursorTime 为 null 表示第一页
+     */
+    public record Key(Long viewerId, Long authorId, View view, LocalDateTime cursorTime, Long cursorId, int size) {
+    }
+
+    private final Cache<Key, CursorPage<?>> cache;
+
+    // 每次失效递增；加载期间发生过失效的结果不写入缓存，避免把提交前读到的旧数据放回去
+    private final AtomicLong generation = new AtomicLong();
+
+    public FeedCache(@Value("${app.feed-cache.max-posts:20000}") long maxPosts,
+                     @Value("${app.feed-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxPosts)
+                .<Key, CursorPage<?>>weigher((key, page) -> page.getItems().size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CursorPage<T> get(Key key, Supplier<CursorPage<T>> loader) {
+        CursorPage<T> cached = (CursorPage<T>) cache.getIfPresent(key);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long startGeneration = generation.get();
+        CursorPage<T> page = loader.get();
+        if (page == null) {
+            return null;
+        }
+        page.setItems(Collections.unmodifiableList(new ArrayList<>(page.getItems())));
+        if (generation.get() == startGeneration) {
+            cache.put(key, page);
+        }
+        return copyOf(page);
+    }
+
+    /**
+     * 作者的日志变化：失效给定观看者的全站列表和该作者列表；viewerIds 为 null 表示所有观看者（公开日志）
+     */
+    public void invalidatePostsOf(Long authorId, Collection<Long> viewerIds) {
+        invalidateIf(key -> (key.authorId() == null || key.authorId().equals(authorId))
+                && (viewerIds == null || viewerIds.contains(key.viewerId())));
+    }
+
+    /**
+     * 两人好友关系变化：失效双方看到的全站列表以及对方的作者列表
+     */
+    public void invalidateFriendship(Long userId, Long friendId) {
+        invalidateIf(key -> (userId.equals(key.viewerId()) || friendId.equals(key.viewerId()))
+                && (key.authorId() == null || key.authorId().equals(userId) || key.authorId().equals(friendId)));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void invalidateIf(Predicate<Key> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    // CursorPage 是可变的，每次返回新的外壳，共享只读的 items
+    private static <T> CursorPage<T> copyOf(CursorPage<T> page) {
+        return new CursorPage<>(page.getItems(), page.getNextCursorTime(), page.getNextCursorId(), page.isHasMore());
+    }
+}
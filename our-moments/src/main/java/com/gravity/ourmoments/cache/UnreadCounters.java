@@ -0,0 +1,172 @@
+package com.gravity.ourmoments.cache;
+
+import com.gravity.ourmoments.dto.UserCount;
+import com.gravity.ourmoments.mapper.MessageMapper;
+import com.gravity.ourmoments.mapper.NotificationMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * 未读通知数和未读私信数的进程内计数器，徽标轮询不再访问数据库。
+ * <p>
+ * 每个用户第一次读取时从数据库加载，之后由写路径在事务提交后增减；
+ * 周期性地与数据库对账，修正加载和提交交错时可能出现的偏差；relay 模式下其他节点的写入只能靠对账同步，
+ * 因此对账间隔就是跨节点的最大延迟。
+ */
+@Slf4j
+@Component
+public class UnreadCounters {
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    private Counter notifications;
+    private Counter messages;
+
+    @PostConstruct
+    public void start() {
+        notifications = new Counter(notificationMapper::countUnreadByUserId, notificationMapper::countUnreadByUserIds);
+        messages = new Counter(messageMapper::countUnread, messageMapper::countUnreadByReceiverIds);
+    }
+
+    public int getNotificationCount(Long userId) {
+        return notifications.get(userId);
+    }
+
+    public void addNotifications(Long userId, int delta) {
+        notifications.add(userId, delta);
+    }
+
+    public void clearNotifications(Long userId) {
+        notifications.clear(userId);
+    }
+
+    public int getMessageCount(Long userId) {
+        return messages.get(userId);
+    }
+
+    public void addMessages(Long userId, int delta) {
+        messages.add(userId, delta);
+    }
+
+    @Scheduled(fixedDelayString = "${app.unread-counters.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.unread-counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        try {
+            int drift = notifications.reconcile() + messages.reconcile();
+            if (drift > 0) {
+                log.info("Corrected {} unread counters against the database", drift);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unread counter reconciliation failed", e);
+        }
+    }
+
+    /**
+     * userId → 计数。加载与修改按 userId 分段加锁，同一分段内的加载不会吞掉并发的增减
+     */
+    static final class Counter {
+        private static final int STRIPES = 64;
+        private static final int RECONCILE_BATCH = 500;
+
+        private final Map<Long, Integer> counts = new ConcurrentHashMap<>();
+        private final Object[] locks = new Object[STRIPES];
+        private final LongFunction<Integer> loader;
+        private final Function<Collection<Long>, List<UserCount>> batchLoader;
+
+        Counter(LongFunction<Integer> loader, Function<Collection<Long>, List<UserCount>> batchLoader) {
+            this.loader = loader;
+            this.batchLoader = batchLoader;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        int get(Long userId) {
+            Integer count = counts.get(userId);
+            if (count != null) {
+                return count;
+            }
+            synchronized (lock(userId)) {
+                return counts.computeIfAbsent(userId, loader::apply);
+            }
+        }
+
+        /**
+         * 只修改已加载的计数；尚未加载的用户下次读取时会从数据库得到最新值
+         */
+        void add(Long userId, int delta) {
+            if (delta == 0) {
+                return;
+            }
+            afterCommit(() -> {
+                synchronized (lock(userId)) {
+                    counts.computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+                }
+            });
+        }
+
+        void clear(Long userId) {
+            afterCommit(() -> {
+                synchronized (lock(userId)) {
+                    counts.put(userId, 0);
+                }
+            });
+        }
+
+        /**
+         * Re-reads every loaded counter in batches and returns how many were wrong.
+         */
+        int reconcile() {
+            List<Long> userIds = new ArrayList<>(counts.keySet());
+            int drift = 0;
+            for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH) {
+                List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH, userIds.size()));
+                Map<Long, Integer> actual = new HashMap<>();
+                for (UserCount row : batchLoader.apply(batch)) {
+                    actual.put(row.getUserId(), row.getCount());
+                }
+                for (Long userId : batch) {
+                    int value = actual.getOrDefault(userId, 0);
+                    synchronized (lock(userId)) {
+                        Integer previous = counts.put(userId, value);
+                        if (previous != null && previous != value) {
+                            drift++;
+                        }
+                    }
+                }
+            }
+            return drift;
+        }
+
+        private Object lock(Long userId) {
+            return locks[Math.floorMod(userId.hashCode(), STRIPES)];
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,9 +1,56 @@
 package com.gravity.ourmoments.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
+
+    /**
+     * 所有 @Scheduled 周期任务（outbox 轮询、计数对账、字典重载、草稿刷盘）共用的调度线程池，
+     * 按 spring.task.scheduling.* 配置，随容器关闭
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * 声明了其他 Executor 后 Spring Boot 不再自动配置默认线程池，这里按 spring.task.execution.* 显式声明，
+     * 未指定线程池的 @Async、MVC 异步请求和启动预热仍使用它。
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * 新日志通知好友的扇出线程池。队列有界：积压满时由提交线程自己执行（此时日志已经提交），
+     * 以此形成背压而不是丢通知。
+     */
+    @Bean
+    public ThreadPoolTaskExecutor notificationFanOutExecutor(
+            @Value("${app.notification.fan-out.pool-size:2}") int poolSize,
+            @Value("${app.notification.fan-out.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 }
@@ -1,5 +1,9 @@
 package com.gravity.ourmoments.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.gravity.ourmoments.cache.FeedCache;
+import com.gravity.ourmoments.dto.OutboxStats;
 import com.gravity.ourmoments.entity.BlogPost;
 import com.gravity.ourmoments.entity.Comment;
 import com.gravity.ourmoments.entity.User;
@@ -8,15 +12,23 @@ import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.BlogPostService;
 import com.gravity.ourmoments.service.CommentService;
 import com.gravity.ourmoments.service.FriendshipService;
+import com.gravity.ourmoments.service.OutboxService;
+import com.gravity.ourmoments.service.TimelineService;
 import com.gravity.ourmoments.service.UserService;
+import com.gravity.ourmoments.util.RowStreamWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -34,6 +46,18 @@ public class AdminController {
     @Autowired
     private FriendshipService friendshipService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FeedCache feedCache;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // User management
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -45,6 +69,11 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/users/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(defaultValue = "json") String format) {
+        return streamRows("users", format, userService::streamAllUsers);
+    }
+
     @GetMapping("/users/role/{role}")
     public ResponseEntity<List<User>> getUsersByRole(@PathVariable String role) {
         if (!isCurrentUserAdmin()) {
@@ -135,15 +164,38 @@ public class AdminController {
 
     // Post management
     @GetMapping("/posts")
-    public ResponseEntity<List<BlogPost>> getAllPosts() {
+    public ResponseEntity<List<?>> getAllPosts(@RequestParam(defaultValue = "full") String view) {
         if (!isCurrentUserAdmin()) {
             return ResponseEntity.status(403).build();
         }
 
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(blogPostService.getPostSummaries(null, null, null));
+        }
+
         List<BlogPost> posts = blogPostService.getPosts(null, null, null);
         return ResponseEntity.ok(posts);
     }
 
+    @GetMapping("/posts/{postId}")
+    public ResponseEntity<BlogPost> getPost(@PathVariable Long postId) {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).build();
+        }
+
+        // 管理员读取不受可见性限制
+        BlogPost post = blogPostService.getPostById(postId);
+        if (post == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(post);
+    }
+
+    @GetMapping("/posts/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllPosts(@RequestParam(defaultValue = "json") String format) {
+        return streamRows("posts", format, blogPostService::streamAllPostSummaries);
+    }
+
     @PutMapping("/posts/{postId}")
     public ResponseEntity<BlogPost> updatePost(@PathVariable Long postId, @RequestBody BlogPost post) {
         if (!isCurrentUserAdmin()) {
@@ -164,6 +216,43 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Backfill blog_timeline from existing posts and friendships (idempotent)
+     */
+    @PostMapping("/timeline/backfill")
+    public ResponseEntity<Map<String, Integer>> backfillTimeline() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).build();
+        }
+
+        int inserted = timelineService.backfill();
+        return ResponseEntity.ok(Map.of("inserted", inserted));
+    }
+
+    @GetMapping("/feed-cache/stats")
+    public ResponseEntity<Map<String, Object>> getFeedCacheStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).build();
+        }
+
+        CacheStats stats = feedCache.stats();
+        return ResponseEntity.ok(Map.of(
+                "size", feedCache.size(),
+                "hitCount", stats.hitCount(),
+                "missCount", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictionCount", stats.evictionCount()));
+    }
+
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<OutboxStats> getOutboxStats() {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+
     // Comment management
     @GetMapping("/comments")
     public ResponseEntity<List<Comment>> getAllComments() {
@@ -175,6 +264,11 @@ public class AdminController {
         return ResponseEntity.ok(comments);
     }
 
+    @GetMapping("/comments/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllComments(@RequestParam(defaultValue = "json") String format) {
+        return streamRows("comments", format, commentService::streamAllComments);
+    }
+
     @PutMapping("/comments/{commentId}")
     public ResponseEntity<Comment> updateComment(@PathVariable Long commentId, @RequestBody Comment comment) {
         if (!isCurrentUserAdmin()) {
@@ -206,6 +300,11 @@ public class AdminController {
         return ResponseEntity.ok(friendships);
     }
 
+    @GetMapping("/friendships/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllFriendships(@RequestParam(defaultValue = "json") String format) {
+        return streamRows("friendships", format, friendshipService::streamAllFriendships);
+    }
+
     @PostMapping("/friendships")
     public ResponseEntity<Object> createFriendship(@RequestBody Map<String, Object> payload) {
         if (!isCurrentUserAdmin()) {
@@ -259,6 +358,42 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Streams rows from a MyBatis cursor straight into the response (json array, ndjson or csv),
+     * so memory stays flat however large the table is.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> streamRows(String name, String format,
+                                                                 Consumer<Consumer<T>> source) {
+        if (!isCurrentUserAdmin()) {
+            return ResponseEntity.status(403).build();
+        }
+
+        RowStreamWriter.Format outputFormat;
+        try {
+            outputFormat = RowStreamWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            try (RowStreamWriter writer = new RowStreamWriter(out, outputFormat, objectMapper)) {
+                source.accept(row -> {
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(outputFormat.getMediaType());
+        if (outputFormat == RowStreamWriter.Format.CSV) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".csv\"");
+        }
+        return response.body(body);
+    }
+
     /**
      * Check if the current user is an admin
      * @return true if admin, false otherwise
@@ -1,16 +1,25 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.CursorPage;
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.BlogPost;
 import com.gravity.ourmoments.entity.User;
 import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.BlogPostService;
+import com.gravity.ourmoments.service.DraftAutosaveService;
+import com.gravity.ourmoments.util.ConditionalRequests;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,13 +29,25 @@ public class BlogPostController {
     @Autowired
     private BlogPostService blogPostService;
 
+    @Autowired
+    private DraftAutosaveService draftAutosaveService;
+
+    /**
+     * Returns complete BlogPost objects by default (existing clients rely on that shape);
+     * pass view=summary for lightweight PostSummary cards
+     */
     @GetMapping
-    public ResponseEntity<List<BlogPost>> getPosts(
+    public ResponseEntity<List<?>> getPosts(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) Integer status) {
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "full") String view) {
         Long currentUserId = getCurrentUserId();
 
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(blogPostService.getVisiblePostSummaries(userId, currentUserId));
+        }
+
         List<BlogPost> posts;
         if (userId != null) {
             // Get posts for a specific user with visibility filtering
@@ -39,14 +60,89 @@ public class BlogPostController {
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Tag filter: posts with every tag in all, at least one tag in any and none of the tags in none,
+     * newest first; pass back nextCursorId to continue
+     */
+    @GetMapping("/tagged")
+    public ResponseEntity<CursorPage<PostSummary>> getPostsByTags(
+            @RequestParam(required = false) List<Long> all,
+            @RequestParam(required = false) List<Long> any,
+            @RequestParam(required = false) List<Long> none,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(blogPostService.getPostsByTags(all, any, none, getCurrentUserId(), cursorId, size));
+    }
+
+    /**
+     * Full-text search over title, content, location and tags, ranked by relevance
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<PostSummary>> searchPosts(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(blogPostService.searchPosts(q, getCurrentUserId(), limit));
+    }
+
+    /**
+     * Cursor-based feed: pass back nextCursorTime / nextCursorId from the previous page to continue;
+     * view=summary returns PostSummary cards (used by the home page)
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<?>> getFeed(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "full") String view) {
+        Long currentUserId = getCurrentUserId();
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(blogPostService.getVisibleSummaryPage(userId, currentUserId, cursorTime, cursorId, size));
+        }
+        CursorPage<BlogPost> page = blogPostService.getVisiblePostsPage(userId, currentUserId, cursorTime, cursorId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Home timeline of the current user: own posts plus posts fanned out by friends;
+     * view=summary returns PostSummary cards (used by the home page when logged in)
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<CursorPage<?>> getTimeline(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorTime,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "full") String view) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(blogPostService.getTimelineSummaryPage(currentUserId, cursorTime, cursorId, size));
+        }
+        return ResponseEntity.ok(blogPostService.getTimelinePage(currentUserId, cursorTime, cursorId, size));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<BlogPost> getPost(@PathVariable Long id) {
+    public ResponseEntity<BlogPost> getPost(@PathVariable Long id, WebRequest webRequest) {
         Long currentUserId = getCurrentUserId();
+
+        // 先用轻量版本查询回答条件请求，命中 304 时不加载媒体、标签等关联数据
+        ResourceVersion version = blogPostService.getVisiblePostVersion(id, currentUserId);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.checkNotModified(webRequest, "post-" + id, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ConditionalRequests.REVALIDATE).build();
+        }
+
         BlogPost post = blogPostService.getVisiblePostById(id, currentUserId);
         if (post == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(post);
+        return ResponseEntity.ok().cacheControl(ConditionalRequests.REVALIDATE).body(post);
     }
 
     @PostMapping
@@ -100,6 +196,8 @@ public class BlogPostController {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
+        // 缓冲中的自动保存必须先落库，不能在这次完整保存之后覆盖它
+        draftAutosaveService.flush(id);
         BlogPost updatedPost = blogPostService.updatePost(id, post);
         return ResponseEntity.ok(updatedPost);
     }
@@ -118,6 +216,7 @@ public class BlogPostController {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
+        draftAutosaveService.discard(id);
         blogPostService.deletePost(id);
         return ResponseEntity.noContent().build();
     }
@@ -1,19 +1,22 @@
 package com.gravity.ourmoments.controller;
 
 import com.gravity.ourmoments.entity.Message;
-import com.gravity.ourmoments.entity.User;
-import com.gravity.ourmoments.service.MessageService;
-import com.gravity.ourmoments.service.FriendshipService;
-import com.gravity.ourmoments.service.UserService;
+import com.gravity.ourmoments.service.ChatMessageWriter;
+import com.gravity.ourmoments.service.ChatSessionContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
+@Slf4j
 @Controller
 public class ChatController {
 
@@ -21,48 +24,50 @@ public class ChatController {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private MessageService messageService;
+    private ChatMessageWriter chatMessageWriter;
 
     @Autowired
-    private FriendshipService friendshipService;
+    private ChatSessionContext chatSessionContext;
 
+    // 回执和推送在出站线程池上执行，不占用唯一的组提交写线程
     @Autowired
-    private UserService userService;
+    @Qualifier("clientOutboundChannelExecutor")
+    private Executor outboundExecutor;
 
     @MessageMapping("/chat")
-    public void processMessage(@Payload ChatMessage chatMessage, Principal principal) {
-        // 通过用户名获取用户ID
-        if(null == principal){return;}
-        String username = principal.getName();
-        User user = userService.getUserByUsername(username);
-        if (user == null) {
+    public void processMessage(@Payload ChatMessage chatMessage, SimpMessageHeaderAccessor headerAccessor) {
+        // 用户 ID 在 CONNECT 时已解析并存入会话属性，未认证的会话不处理
+        Map<String, Object> sessionAttributes = headerAccessor.getSessionAttributes();
+        Long senderId = chatSessionContext.getUserId(sessionAttributes);
+        if (senderId == null) {
             return;
         }
-        Long senderId = user.getUserId();
 
-        // 检查是否是好友关系
-        if (!friendshipService.areFriends(senderId, chatMessage.getReceiverId())) {
+        // 检查是否是好友关系（会话内缓存的好友集合）
+        if (!chatSessionContext.areFriends(sessionAttributes, senderId, chatMessage.getReceiverId())) {
             // 如果不是好友，不处理消息
             return;
         }
 
-        // 保存消息到数据库
-        Message message = new Message();
-        message.setSenderId(senderId);
-        message.setReceiverId(chatMessage.getReceiverId());
-        message.setContent(chatMessage.getContent());
-        message.setIsRead(false);
-        message.setCreateTime(LocalDateTime.now());
-        message.setUpdateTime(LocalDateTime.now());
-
-        messageService.sendMessage(senderId, chatMessage.getReceiverId(), chatMessage.getContent());
-
-        // 发送消息给接收者
-        messagingTemplate.convertAndSendToUser(
-            chatMessage.getReceiverId().toString(),
-            "/queue/messages",
-            new ChatMessage(senderId, chatMessage.getReceiverId(), chatMessage.getContent())
-        );
+        // 交给组提交写线程，落库提交后再推送给接收者并回执发送者
+        Long receiverId = chatMessage.getReceiverId();
+        String clientMessageId = chatMessage.getClientMessageId();
+        chatMessageWriter.submit(senderId, receiverId, chatMessage.getContent()).whenCompleteAsync((saved, error) -> {
+            if (error != null) {
+                log.warn("Chat message from {} to {} was not saved: {}", senderId, receiverId, error.getMessage());
+                ChatMessage failed = new ChatMessage(senderId, receiverId, chatMessage.getContent());
+                failed.setClientMessageId(clientMessageId);
+                messagingTemplate.convertAndSendToUser(senderId.toString(), "/queue/message-acks", failed);
+                return;
+            }
+            ChatMessage delivered = new ChatMessage(saved);
+            // 发送消息给接收者
+            messagingTemplate.convertAndSendToUser(receiverId.toString(), "/queue/messages", delivered);
+
+            ChatMessage ack = new ChatMessage(saved);
+            ack.setClientMessageId(clientMessageId);
+            messagingTemplate.convertAndSendToUser(senderId.toString(), "/queue/message-acks", ack);
+        }, outboundExecutor);
     }
 
     // 内部消息类用于WebSocket传输
@@ -71,10 +76,22 @@ public class ChatController {
         private Long receiverId;
         private String content;
         private String timestamp;
+        // 落库后的消息 ID；回执中为 null 表示保存失败
+        private Long messageId;
+        // 客户端生成的 ID，原样带回回执用于匹配
+        private String clientMessageId;
 
         public ChatMessage() {
         }
 
+        public ChatMessage(Message saved) {
+            this.senderId = saved.getSenderId();
+            this.receiverId = saved.getReceiverId();
+            this.content = saved.getContent();
+            this.timestamp = saved.getCreateTime().toString();
+            this.messageId = saved.getMessageId();
+        }
+
         public ChatMessage(Long senderId, Long receiverId, String content) {
             this.senderId = senderId;
             this.receiverId = receiverId;
@@ -114,5 +131,21 @@ public class ChatController {
         public void setTimestamp(String timestamp) {
             this.timestamp = timestamp;
         }
+
+        public Long getMessageId() {
+            return messageId;
+        }
+
+        public void setMessageId(Long messageId) {
+            this.messageId = messageId;
+        }
+
+        public String getClientMessageId() {
+            return clientMessageId;
+        }
+
+        public void setClientMessageId(String clientMessageId) {
+            this.clientMessageId = clientMessageId;
+        }
     }
 }
\ No newline at end of file
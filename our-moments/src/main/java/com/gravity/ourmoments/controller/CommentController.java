@@ -1,13 +1,17 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.Comment;
 import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.CommentService;
+import com.gravity.ourmoments.util.ConditionalRequests;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.net.URI;
 import java.util.List;
 
@@ -19,9 +23,15 @@ public class CommentController {
     private CommentService commentService;
 
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<Comment>> getCommentsByPostId(@PathVariable Long postId) {
+    public ResponseEntity<List<Comment>> getCommentsByPostId(@PathVariable Long postId, WebRequest webRequest) {
+        // ETag = 评论列表版本 + 评论者资料版本，新增、修改、删除评论以及评论者改资料都会改变它
+        ResourceVersion version = commentService.getCommentsVersion(postId);
+        if (ConditionalRequests.checkNotModified(webRequest, "comments-" + postId, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ConditionalRequests.REVALIDATE).build();
+        }
+
         List<Comment> comments = commentService.getCommentsByPostId(postId);
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok().cacheControl(ConditionalRequests.REVALIDATE).body(comments);
     }
 
     @GetMapping("/post/{postId}/position/{position}")
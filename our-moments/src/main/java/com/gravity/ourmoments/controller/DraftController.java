@@ -1,9 +1,11 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.DraftPatch;
 import com.gravity.ourmoments.entity.BlogPost;
 import com.gravity.ourmoments.entity.User;
 import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.BlogPostService;
+import com.gravity.ourmoments.service.DraftAutosaveService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -20,13 +22,20 @@ public class DraftController {
     @Autowired
     private BlogPostService blogPostService;
 
+    @Autowired
+    private DraftAutosaveService draftAutosaveService;
+
     @GetMapping
-    public ResponseEntity<List<BlogPost>> getDrafts() {
+    public ResponseEntity<List<?>> getDrafts(@RequestParam(defaultValue = "full") String view) {
         Long currentUserId = getCurrentUserId();
         if (currentUserId == null) {
             return ResponseEntity.status(401).build();
         }
 
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(blogPostService.getDraftSummariesByUserId(currentUserId));
+        }
+
         List<BlogPost> drafts = blogPostService.getDraftsByUserId(currentUserId);
         return ResponseEntity.ok(drafts);
     }
@@ -45,6 +54,53 @@ public class DraftController {
         return ResponseEntity.ok(draft);
     }
 
+    /**
+     * 编辑器自动保存：只提交变化的字段。普通修改返回 202 并在后台合并落库；
+     * 新增或删除媒体会立即保存，返回 200 和最新草稿（带新媒体的 mediaId）。
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<BlogPost> autosave(@PathVariable Long id, @RequestBody DraftPatch patch) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        switch (draftAutosaveService.autosave(id, currentUserId, patch)) {
+            case BUFFERED:
+                return ResponseEntity.accepted().build();
+            case SAVED:
+                return ResponseEntity.ok(blogPostService.getPostById(id));
+            case NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case FORBIDDEN:
+                return ResponseEntity.status(403).build();
+            default:
+                return ResponseEntity.status(409).build(); // Already published
+        }
+    }
+
+    @PostMapping("/{id}/publish")
+    public ResponseEntity<BlogPost> publish(@PathVariable Long id) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        BlogPost draft = blogPostService.getPostHeader(id);
+        if (draft == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!draft.getUserId().equals(currentUserId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        // 先把缓冲中的修改写入，再切换为已发布
+        draftAutosaveService.flush(id);
+        BlogPost update = new BlogPost();
+        update.setStatus(1);
+        return ResponseEntity.ok(blogPostService.updatePost(id, update));
+    }
+
     /**
      * Get the current user ID from the security context
      * @return User ID if authenticated, null if anonymous
@@ -1,5 +1,7 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.ConversationSummary;
+import com.gravity.ourmoments.dto.CursorPage;
 import com.gravity.ourmoments.entity.Message;
 import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.MessageService;
@@ -60,6 +62,37 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * 聊天记录分页：不带 before 返回最新一页，之后把 nextCursorId 作为 before 传回加载更早的消息
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPage<Message>> getChatHistoryPage(
+            @RequestParam Long friendId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "30") int limit,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+
+        // 检查是否是好友关系
+        if (!friendshipService.areFriends(userId, friendId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(messageService.getChatHistoryPage(userId, friendId, before, limit));
+    }
+
+    /**
+     * 收件箱：每个会话一项，按最后一条消息倒序；把 nextCursorId 作为 before 传回取下一页
+     */
+    @GetMapping("/conversations")
+    public ResponseEntity<CursorPage<ConversationSummary>> getConversations(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        return ResponseEntity.ok(messageService.getConversations(userId, before, limit));
+    }
+
     @GetMapping("/unread")
     public ResponseEntity<List<Message>> getUnreadMessages(Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
@@ -67,6 +100,12 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<Integer> getUnreadCount(Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        return ResponseEntity.ok(messageService.getUnreadCount(userId));
+    }
+
     @PutMapping("/read")
     public ResponseEntity<Void> markAsRead(
             @RequestParam Long senderId,
@@ -1,9 +1,13 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.TagFacet;
 import com.gravity.ourmoments.entity.Tag;
+import com.gravity.ourmoments.security.CustomUserDetails;
 import com.gravity.ourmoments.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
@@ -21,6 +25,17 @@ public class TagController {
         return ResponseEntity.ok(tagService.getAllTags());
     }
 
+    /**
+     * Facet counts for a tag filter (same all/any/none semantics as /api/posts/tagged)
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<List<TagFacet>> getTagFacets(
+            @RequestParam(required = false) List<Long> all,
+            @RequestParam(required = false) List<Long> any,
+            @RequestParam(required = false) List<Long> none) {
+        return ResponseEntity.ok(tagService.getTagFacets(all, any, none, getCurrentUserId()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Tag> getTag(@PathVariable Long id) {
         Tag tag = tagService.getTagById(id);
@@ -41,4 +56,23 @@ public class TagController {
         tagService.deleteTag(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Get the current user ID from the security context
+     * @return User ID if authenticated, null if anonymous
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() ||
+            "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof CustomUserDetails) {
+            return ((CustomUserDetails) principal).getUserId();
+        }
+
+        return null;
+    }
 }
@@ -1,10 +1,14 @@
 package com.gravity.ourmoments.controller;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.User;
 import com.gravity.ourmoments.service.UserService;
+import com.gravity.ourmoments.util.ConditionalRequests;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.net.URI;
 
 @RestController
@@ -15,12 +19,20 @@ public class UserController {
     private UserService userService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(@PathVariable Long id) {
+    public ResponseEntity<User> getUser(@PathVariable Long id, WebRequest webRequest) {
+        ResourceVersion version = userService.getUserVersion(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.checkNotModified(webRequest, "user-" + id, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(ConditionalRequests.REVALIDATE).build();
+        }
+
         User user = userService.getUserById(id);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok().cacheControl(ConditionalRequests.REVALIDATE).body(user);
     }
 
     @GetMapping("/username/{username}")
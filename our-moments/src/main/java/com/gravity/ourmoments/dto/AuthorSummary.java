@@ -0,0 +1,13 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+/**
+ * 列表中展示的作者信息，不包含密码、邮箱等字段
+ */
+@Data
+public class AuthorSummary {
+    private Long userId;
+    private String nickname;
+    private String avatar;
+}
@@ -0,0 +1,20 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 收件箱中的一个会话：对方信息、最后一条消息预览和当前用户的未读数
+ */
+@Data
+public class ConversationSummary {
+    private Long peerId;
+    private String peerNickname;
+    private String peerAvatar;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastPreview;
+    private LocalDateTime lastTime;
+    private int unreadCount;
+}
@@ -0,0 +1,21 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 游标分页结果，客户端把 nextCursorTime / nextCursorId 原样带回即可取下一页
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private LocalDateTime nextCursorTime;
+    private Long nextCursorId;
+    private boolean hasMore;
+}
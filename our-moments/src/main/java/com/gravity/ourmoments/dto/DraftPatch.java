@@ -0,0 +1,27 @@
+package com.gravity.ourmoments.dto;
+
+import com.gravity.ourmoments.entity.BlogMedia;
+import com.gravity.ourmoments.entity.Tag;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 草稿自动保存的局部修改：只有非 null 的字段会被写入。
+ * <p>
+ * media 中带 mediaId 的条目只修改该媒体里非 null 的布局字段；没有 mediaId 的条目是新增媒体。
+ * tagList 非 null 时整体替换标签。
+ */
+@Data
+public class DraftPatch {
+    private Long categoryId;
+    private String title;
+    private String content;
+    private String weather;
+    private String mood;
+    private String location;
+    private String visibility;
+    private List<BlogMedia> media;
+    private List<Long> removedMediaIds;
+    private List<Tag> tagList;
+}
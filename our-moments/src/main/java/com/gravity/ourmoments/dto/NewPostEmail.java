@@ -0,0 +1,18 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 新日志邮件的 outbox 负载
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewPostEmail {
+    private String to;
+    private String authorName;
+    private String postTitle;
+    private Long postId;
+}
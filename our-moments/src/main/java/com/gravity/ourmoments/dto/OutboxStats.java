@@ -0,0 +1,15 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+/**
+ * Outbox 积压与投递统计：lagSeconds 为最早一条待投递事件已等待的秒数
+ */
+@Data
+public class OutboxStats {
+    private long pending;
+    private long dead;
+    private long lagSeconds;
+    private long delivered;
+    private long retried;
+}
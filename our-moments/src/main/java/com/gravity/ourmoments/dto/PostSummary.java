@@ -0,0 +1,30 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 日志卡片投影：列表接口只返回摘要、封面和计数，不携带正文全文和拼贴坐标
+ */
+@Data
+public class PostSummary {
+    private Long postId;
+    private Long userId;
+    private Long categoryId;
+    private String title;
+    private String excerpt;
+    private String weather;
+    private String mood;
+    private String location;
+    private Integer status;
+    private String visibility;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+
+    private String coverUrl;
+    private Integer mediaCount;
+    private List<String> tagNames;
+    private AuthorSummary author;
+}
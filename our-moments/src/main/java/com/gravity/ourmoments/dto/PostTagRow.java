@@ -0,0 +1,14 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+/**
+ * 已发布日志与标签的一行关联（tagId 为 null 表示该日志没有标签）
+ */
+@Data
+public class PostTagRow {
+    private Long postId;
+    private Long userId;
+    private String visibility;
+    private Long tagId;
+}
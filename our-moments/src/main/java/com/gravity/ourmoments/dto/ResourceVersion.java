@@ -0,0 +1,14 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资源的版本信息：tag 由版本计数器拼成，用于生成 ETag；lastModified 只用于 Last-Modified（秒级精度）
+ */
+@Data
+public class ResourceVersion {
+    private LocalDateTime lastModified;
+    private String tag;
+}
@@ -0,0 +1,22 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文索引所需的日志字段，标签名以空格拼接
+ */
+@Data
+public class SearchDocument {
+    private Long postId;
+    private Long userId;
+    private String title;
+    private String content;
+    private String location;
+    private String tagText;
+    private Integer status;
+    private String visibility;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+}
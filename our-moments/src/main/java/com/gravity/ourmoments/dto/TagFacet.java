@@ -0,0 +1,17 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 标签分面：当前筛选结果中带有该标签的日志数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagFacet {
+    private Long tagId;
+    private String name;
+    private int count;
+}
@@ -0,0 +1,12 @@
+package com.gravity.ourmoments.dto;
+
+import lombok.Data;
+
+/**
+ * 按用户分组计数的一行结果
+ */
+@Data
+public class UserCount {
+    private Long userId;
+    private int count;
+}
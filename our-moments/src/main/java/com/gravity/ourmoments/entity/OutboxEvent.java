@@ -0,0 +1,16 @@
+package com.gravity.ourmoments.entity;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class OutboxEvent {
+    private Long outboxId;
+    private String eventType; // NOTIFICATION_PUSH, NEW_POST_EMAIL
+    private String payload; // JSON
+    private Integer status; // 0:Pending, 2:Dead
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime nextAttemptTime;
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,9 @@
+package com.gravity.ourmoments.entity;
+
+import lombok.Data;
+
+@Data
+public class PostTag {
+    private Long postId;
+    private Tag tag;
+}
@@ -0,0 +1,14 @@
+package com.gravity.ourmoments.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 两个用户之间的好友关系状态发生变化（接受、删除、管理员修改）
+ */
+@Data
+@AllArgsConstructor
+public class FriendshipChangedEvent {
+    private Long userId;
+    private Long friendId;
+}
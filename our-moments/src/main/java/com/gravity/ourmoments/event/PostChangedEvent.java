@@ -0,0 +1,16 @@
+package com.gravity.ourmoments.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 日志创建、更新或删除后发布；可见性为 null 表示该时刻日志不存在
+ */
+@Data
+@AllArgsConstructor
+public class PostChangedEvent {
+    private Long postId;
+    private Long authorId;
+    private String oldVisibility;
+    private String newVisibility;
+}
@@ -0,0 +1,15 @@
+package com.gravity.ourmoments.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 日志以非 PRIVATE 可见性发布后发布，用于事务提交后通知好友
+ */
+@Data
+@AllArgsConstructor
+public class PostPublishedEvent {
+    private Long postId;
+    private Long authorId;
+    private String title;
+}
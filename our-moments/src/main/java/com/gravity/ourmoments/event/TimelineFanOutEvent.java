@@ -0,0 +1,14 @@
+package com.gravity.ourmoments.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 日志创建，或可见性、发布状态变化后发布，用于事务提交后重建读者时间线条目
+ */
+@Data
+@AllArgsConstructor
+public class TimelineFanOutEvent {
+    private Long postId;
+    private Long authorId;
+}
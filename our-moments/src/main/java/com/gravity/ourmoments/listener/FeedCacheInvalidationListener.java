@@ -0,0 +1,60 @@
+package com.gravity.ourmoments.listener;
+
+import com.gravity.ourmoments.cache.FeedCache;
+import com.gravity.ourmoments.event.FriendshipChangedEvent;
+import com.gravity.ourmoments.event.PostChangedEvent;
+import com.gravity.ourmoments.service.ViewerContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+public class FeedCacheInvalidationListener {
+
+    @Autowired
+    private FeedCache feedCache;
+
+    @Autowired
+    private ViewerContext viewerContext;
+
+    // 事务提交后再失效，避免并发请求把提交前的旧数据重新放回缓存
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePostChanged(PostChangedEvent event) {
+        Long authorId = event.getAuthorId();
+        Set<Long> viewers = new HashSet<>();
+        viewers.add(authorId);
+
+        for (String visibility : new String[]{event.getOldVisibility(), event.getNewVisibility()}) {
+            if (visibility == null) {
+                continue; // 该时刻日志不存在
+            }
+            switch (visibility) {
+                case "PUBLIC" -> {
+                    // 公开日志对所有人（包括匿名访客）可见
+                    feedCache.invalidatePostsOf(authorId, null);
+                    return;
+                }
+                case "FRIENDS" -> viewerContext.getFriendIds(authorId).forEach(viewers::add);
+                case "PARTNER" -> {
+                    if (authorId == 1L) {
+                        viewers.add(100L);
+                    } else if (authorId == 100L) {
+                        viewers.add(1L);
+                    }
+                }
+                default -> {
+                    // PRIVATE 及未知可见性只影响作者本人
+                }
+            }
+        }
+        feedCache.invalidatePostsOf(authorId, viewers);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFriendshipChanged(FriendshipChangedEvent event) {
+        feedCache.invalidateFriendship(event.getUserId(), event.getFriendId());
+    }
+}
@@ -0,0 +1,28 @@
+package com.gravity.ourmoments.listener;
+
+import com.gravity.ourmoments.event.PostPublishedEvent;
+import com.gravity.ourmoments.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+public class NewPostNotificationListener {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // 日志提交后才通知好友，在独立的有界线程池里执行，不占用发布请求的线程和事务
+    @Async("notificationFanOutExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePostPublished(PostPublishedEvent event) {
+        try {
+            notificationService.sendNewPostNotificationToFriends(event.getAuthorId(), event.getPostId(), event.getTitle());
+        } catch (Exception e) {
+            log.warn("Failed to notify friends about post {}", event.getPostId(), e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.gravity.ourmoments.listener;
+
+import com.gravity.ourmoments.dto.SearchDocument;
+import com.gravity.ourmoments.event.PostChangedEvent;
+import com.gravity.ourmoments.mapper.BlogPostMapper;
+import com.gravity.ourmoments.search.PostSearchIndex;
+import com.gravity.ourmoments.util.LongHashSet;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 维护全文索引：启动时加载快照并从数据库补齐增量，之后随日志的增删改增量更新。
+ * <p>
+ * 事件只在本节点发布，多节点部署时其他节点的修改靠周期追赶：按高水位重读最近变更的日志，
+ * 并定期清掉数据库里已删除的日志。搜索结果本来就由 SQL 再校验可见性，追赶间隔只影响召回。
+ */
+@Slf4j
+@Component
+public class PostSearchIndexListener {
+
+    // 提交晚于 update_time 的事务不会因为高水位已经越过它而被漏掉
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private BlogPostMapper blogPostMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            boolean restored = postSearchIndex.loadSnapshot();
+            // 快照之后变更过的日志（update_time >= 高水位）重新索引；没有快照则全量构建
+            LocalDateTime updatedAfter = restored ? postSearchIndex.getHighWaterMark() : null;
+            int indexed = reindexUpdatedAfter(updatedAfter);
+            log.info("Post search index ready: {} posts, {} re-read from database", postSearchIndex.size(), indexed);
+            if (indexed > 0) {
+                postSearchIndex.saveSnapshot();
+            }
+        } catch (Exception e) {
+            log.warn("Post search index warm-up failed, search will only cover posts changed from now on", e);
+        }
+    }
+
+    /**
+     * 追赶其他节点的新增和修改；高水位为空（预热失败）时相当于重新全量构建
+     */
+    @Scheduled(fixedDelayString = "${app.search-index.catch-up-interval-ms:60000}",
+            initialDelayString = "${app.search-index.catch-up-interval-ms:60000}")
+    public void catchUp() {
+        try {
+            LocalDateTime highWaterMark = postSearchIndex.getHighWaterMark();
+            int indexed = reindexUpdatedAfter(highWaterMark != null ? highWaterMark.minus(CATCH_UP_OVERLAP) : null);
+            log.debug("Post search index catch-up re-read {} posts", indexed);
+        } catch (RuntimeException e) {
+            log.warn("Post search index catch-up failed", e);
+        }
+    }
+
+    /**
+     * 其他节点删除的日志不会再出现在增量里，按现存 post_id 清理
+     */
+    @Scheduled(fixedDelayString = "${app.search-index.purge-interval-ms:600000}",
+            initialDelayString = "${app.search-index.purge-interval-ms:600000}")
+    public void purgeDeleted() {
+        try {
+            LocalDateTime indexedBefore = LocalDateTime.now().minus(CATCH_UP_OVERLAP);
+            LongHashSet livePostIds = transactionTemplate.execute(status -> {
+                LongHashSet ids = new LongHashSet(Math.max(postSearchIndex.size(), 16));
+                try (Cursor<Long> cursor = blogPostMapper.streamPostIds()) {
+                    cursor.forEach(ids::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return ids;
+            });
+            int removed = postSearchIndex.retainAll(livePostIds, indexedBefore);
+            if (removed > 0) {
+                log.info("Removed {} deleted posts from the search index", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Post search index purge failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePostChanged(PostChangedEvent event) {
+        if (event.getNewVisibility() == null) {
+            postSearchIndex.remove(event.getPostId());
+            return;
+        }
+
+        SearchDocument document = blogPostMapper.findSearchDocument(event.getPostId());
+        if (document == null) {
+            postSearchIndex.remove(event.getPostId());
+        } else {
+            postSearchIndex.index(document);
+        }
+    }
+
+    // 预热和周期追赶不并发扫描
+    private synchronized int reindexUpdatedAfter(LocalDateTime updatedAfter) {
+        // Cursor 只能在事务内读取
+        return transactionTemplate.execute(status -> {
+            int count = 0;
+            try (Cursor<SearchDocument> cursor = blogPostMapper.streamSearchDocuments(updatedAfter)) {
+                for (SearchDocument document : cursor) {
+                    postSearchIndex.index(document);
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.gravity.ourmoments.listener;
+
+import com.gravity.ourmoments.dto.PostTagRow;
+import com.gravity.ourmoments.event.PostChangedEvent;
+import com.gravity.ourmoments.mapper.BlogPostMapper;
+import com.gravity.ourmoments.search.TagBitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 维护标签位图：启动时从 blog_post_tag 全量构建，之后每次日志增删改（含标签变化）后重建该日志的位。
+ * <p>
+ * 事件只在本节点发布，多节点部署时其他节点的修改靠周期性全量重建收敛；
+ * 筛选结果本来就由 SQL 再校验状态和可见性，重建间隔只影响召回。
+ */
+@Slf4j
+@Component
+public class TagBitmapIndexListener {
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private BlogPostMapper blogPostMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 重建期间本节点改过的日志 → 作者；新位图可能读到改之前的数据，替换后按数据库重放这些日志
+    private final Map<Long, Long> changedDuringRebuild = new ConcurrentHashMap<>();
+    private volatile boolean rebuilding;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            int rows = rebuild();
+            log.info("Tag bitmap index built from {} post/tag rows", rows);
+        } catch (Exception e) {
+            log.warn("Tag bitmap index warm-up failed, tag filters will only cover posts changed from now on", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.tag-bitmap.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.tag-bitmap.rebuild-interval-ms:300000}")
+    public void refresh() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Tag bitmap index rebuild failed", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePostChanged(PostChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.put(event.getPostId(), event.getAuthorId());
+        }
+        reload(event.getPostId(), event.getAuthorId());
+    }
+
+    /**
+     * 在独立的实例里从数据库构建，完成后整体替换，查询不会看到构建到一半的位图
+     */
+    private synchronized int rebuild() {
+        rebuilding = true;
+        try {
+            TagBitmapIndex rebuilt = new TagBitmapIndex();
+            // Cursor 只能在事务内读取
+            int rows = transactionTemplate.execute(status -> {
+                int count = 0;
+                try (Cursor<PostTagRow> cursor = blogPostMapper.streamPostTagRows()) {
+                    for (PostTagRow row : cursor) {
+                        rebuilt.add(row);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+            tagBitmapIndex.replaceWith(rebuilt);
+            return rows;
+        } finally {
+            rebuilding = false;
+            changedDuringRebuild.forEach(this::reload);
+            changedDuringRebuild.clear();
+        }
+    }
+
+    private void reload(Long postId, Long authorId) {
+        tagBitmapIndex.removePost(postId, authorId);
+        for (PostTagRow row : blogPostMapper.findPostTagRows(postId)) {
+            tagBitmapIndex.add(row);
+        }
+    }
+}
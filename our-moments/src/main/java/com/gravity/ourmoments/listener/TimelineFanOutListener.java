@@ -0,0 +1,38 @@
+package com.gravity.ourmoments.listener;
+
+import com.gravity.ourmoments.cache.FeedCache;
+import com.gravity.ourmoments.event.TimelineFanOutEvent;
+import com.gravity.ourmoments.service.TimelineService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+@Slf4j
+@Component
+public class TimelineFanOutListener {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FeedCache feedCache;
+
+    // 写扩散在事务提交后异步执行，好友很多时也不拖长发布请求和它的事务；
+    // 扩散完成后再失效这些读者的首页缓存，否则提交到扩散之间读到的旧页会一直留到 TTL
+    @Async("notificationFanOutExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleTimelineFanOut(TimelineFanOutEvent event) {
+        try {
+            Collection<Long> recipients = timelineService.refreshPost(event.getPostId());
+            if (!recipients.isEmpty()) {
+                feedCache.invalidatePostsOf(event.getAuthorId(), recipients);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to fan out post {} to timelines", event.getPostId(), e);
+        }
+    }
+}
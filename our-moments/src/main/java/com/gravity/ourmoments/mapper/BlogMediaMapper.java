@@ -2,11 +2,18 @@ package com.gravity.ourmoments.mapper;
 
 import com.gravity.ourmoments.entity.BlogMedia;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface BlogMediaMapper {
     List<BlogMedia> findByPostId(Long postId);
+    List<BlogMedia> findByPostIds(@Param("postIds") Collection<Long> postIds);
     int insert(BlogMedia media);
+    int insertBatch(@Param("mediaList") List<BlogMedia> mediaList);
+    int updateLayoutBatch(@Param("postId") Long postId, @Param("mediaList") List<BlogMedia> mediaList);
+    int deleteByIds(@Param("postId") Long postId, @Param("mediaIds") Collection<Long> mediaIds);
     int deleteByPostId(Long postId);
 }
@@ -1,14 +1,25 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.dto.PostTagRow;
+import com.gravity.ourmoments.dto.ResourceVersion;
+import com.gravity.ourmoments.dto.SearchDocument;
 import com.gravity.ourmoments.entity.BlogPost;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface BlogPostMapper {
     BlogPost findById(Long postId);
 
+    // Post header (user_id, status, visibility, times) without content or relations
+    BlogPost findHeaderById(@Param("postId") Long postId);
+
     // Supports basic filtering
     List<BlogPost> findPosts(@Param("userId") Long userId,
                             @Param("categoryId") Long categoryId,
@@ -17,13 +28,56 @@ public interface BlogPostMapper {
     // Get all posts
     List<BlogPost> findAll();
 
+    // Visibility-aware queries: only rows the viewer may see are returned (viewerId null = anonymous)
+    List<BlogPost> findVisible(@Param("userId") Long userId, @Param("viewerId") Long viewerId);
+    BlogPost findVisibleById(@Param("postId") Long postId, @Param("viewerId") Long viewerId);
+    ResourceVersion findVisibleVersion(@Param("postId") Long postId, @Param("viewerId") Long viewerId);
+
+    // Card projections for list endpoints (content truncated to excerptLength characters)
+    List<PostSummary> findVisibleSummaries(@Param("userId") Long userId,
+                                           @Param("viewerId") Long viewerId,
+                                           @Param("excerptLength") int excerptLength);
+    List<PostSummary> findVisibleSummariesByIds(@Param("postIds") Collection<Long> postIds,
+                                                @Param("viewerId") Long viewerId,
+                                                @Param("excerptLength") int excerptLength);
+    // Streams every post as a card; must be consumed inside a transaction
+    Cursor<PostSummary> streamSummaries(@Param("excerptLength") int excerptLength);
+
+    // Full-text index source rows
+    SearchDocument findSearchDocument(@Param("postId") Long postId);
+    Cursor<SearchDocument> streamSearchDocuments(@Param("updatedAfter") LocalDateTime updatedAfter);
+    Cursor<Long> streamPostIds();
+
+    // Tag bitmap source rows (published posts only)
+    List<PostTagRow> findPostTagRows(@Param("postId") Long postId);
+    Cursor<PostTagRow> streamPostTagRows();
+    List<PostSummary> findSummaries(@Param("userId") Long userId,
+                                    @Param("categoryId") Long categoryId,
+                                    @Param("status") Integer status,
+                                    @Param("excerptLength") int excerptLength);
+
+    // Keyset page ordered by (create_time, post_id) DESC, strictly after the cursor
+    List<BlogPost> findVisiblePageBefore(@Param("userId") Long userId,
+                                         @Param("viewerId") Long viewerId,
+                                         @Param("cursorTime") LocalDateTime cursorTime,
+                                         @Param("cursorId") Long cursorId,
+                                         @Param("limit") int limit);
+    List<PostSummary> findVisibleSummaryPageBefore(@Param("userId") Long userId,
+                                                   @Param("viewerId") Long viewerId,
+                                                   @Param("cursorTime") LocalDateTime cursorTime,
+                                                   @Param("cursorId") Long cursorId,
+                                                   @Param("limit") int limit,
+                                                   @Param("excerptLength") int excerptLength);
+
     int insert(BlogPost post);
     int update(BlogPost post);
     int deleteById(Long postId);
 
     // Tag relations
-    int addTagToPost(@Param("postId") Long postId, @Param("tagId") Long tagId);
+    int addTagsToPost(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
     int removeTagsFromPost(Long postId);
+    int removeTagsByIds(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
+    List<Long> findTagIdsByPostId(@Param("postId") Long postId);
 
     // Draft management
     List<BlogPost> findDraftsByUserId(@Param("userId") Long userId);
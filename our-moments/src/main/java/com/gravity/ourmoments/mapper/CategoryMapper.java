@@ -2,11 +2,15 @@ package com.gravity.ourmoments.mapper;
 
 import com.gravity.ourmoments.entity.Category;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface CategoryMapper {
     Category findById(Long categoryId);
+    List<Category> findByIds(@Param("categoryIds") Collection<Long> categoryIds);
     List<Category> findAll();
     int insert(Category category);
     int update(Category category);
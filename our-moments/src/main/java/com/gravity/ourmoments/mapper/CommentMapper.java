@@ -1,20 +1,25 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import java.util.List;
 
 @Mapper
 public interface CommentMapper {
     Comment findById(Long commentId);
     List<Comment> findByPostId(Long postId);
+    ResourceVersion findVersionByPostId(Long postId);
     List<Comment> findByPostIdAndPosition(@Param("postId") Long postId, @Param("position") Integer position);
     int insert(Comment comment);
     int update(Comment comment);
     int deleteById(Long commentId);
     int deleteByPostId(Long postId);
+    int bumpCommentVersion(Long postId);
 
     // Admin support
     List<Comment> findAll();
+    Cursor<Comment> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.dto.ConversationSummary;
+import com.gravity.ourmoments.entity.Message;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+@Mapper
+public interface ConversationMapper {
+
+    /**
+     * 每条消息写两行：发送方一行、接收方一行（未读数 +1）。
+     * ON DUPLICATE KEY UPDATE 按书写顺序赋值，last_message_id 必须放在最后，前面的比较才能看到旧值；
+     * 同一批里同一会话出现多次时按 message_id 取最新的一条。
+     */
+    @Insert("<script>INSERT INTO sys_conversation " +
+            "(user_id, peer_id, last_message_id, last_sender_id, last_preview, last_time, unread_count) VALUES " +
+            "<foreach collection='messages' item='m' separator=','>" +
+            "(#{m.senderId}, #{m.receiverId}, #{m.messageId}, #{m.senderId}, LEFT(#{m.content}, 100), #{m.createTime}, 0), " +
+            "(#{m.receiverId}, #{m.senderId}, #{m.messageId}, #{m.senderId}, LEFT(#{m.content}, 100), #{m.createTime}, 1)" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE " +
+            "unread_count = unread_count + VALUES(unread_count), " +
+            "last_sender_id = IF(VALUES(last_message_id) > last_message_id, VALUES(last_sender_id), last_sender_id), " +
+            "last_preview = IF(VALUES(last_message_id) > last_message_id, VALUES(last_preview), last_preview), " +
+            "last_time = IF(VALUES(last_message_id) > last_message_id, VALUES(last_time), last_time), " +
+            "last_message_id = GREATEST(last_message_id, VALUES(last_message_id))</script>")
+    void upsertForMessages(@Param("messages") List<Message> messages);
+
+    @Update("UPDATE sys_conversation SET unread_count = GREATEST(unread_count - #{count}, 0) " +
+            "WHERE user_id = #{userId} AND peer_id = #{peerId}")
+    void decrementUnread(Long userId, Long peerId, int count);
+
+    /**
+     * 删除的消息恰好是会话最后一条时，两行都改为指向 latest
+     */
+    @Update("UPDATE sys_conversation SET last_message_id = #{latest.messageId}, last_sender_id = #{latest.senderId}, " +
+            "last_preview = LEFT(#{latest.content}, 100), last_time = #{latest.createTime} " +
+            "WHERE ((user_id = #{userId} AND peer_id = #{peerId}) OR (user_id = #{peerId} AND peer_id = #{userId})) " +
+            "AND last_message_id = #{deletedId}")
+    void replaceLastMessage(@Param("userId") Long userId, @Param("peerId") Long peerId,
+                            @Param("deletedId") Long deletedId, @Param("latest") Message latest);
+
+    @Delete("DELETE FROM sys_conversation " +
+            "WHERE (user_id = #{userId} AND peer_id = #{peerId}) OR (user_id = #{peerId} AND peer_id = #{userId})")
+    void deletePair(Long userId, Long peerId);
+
+    /**
+     * 收件箱一页，按最后一条消息倒序；走 idx_user_last_message 的范围扫描
+     */
+    @Select("<script>SELECT c.peer_id, u.nickname AS peer_nickname, u.avatar AS peer_avatar, c.last_message_id, " +
+            "c.last_sender_id, c.last_preview, c.last_time, c.unread_count " +
+            "FROM sys_conversation c LEFT JOIN sys_user u ON u.user_id = c.peer_id " +
+            "WHERE c.user_id = #{userId} " +
+            "<if test='beforeMessageId != null'>AND c.last_message_id &lt; #{beforeMessageId} </if>" +
+            "ORDER BY c.last_message_id DESC LIMIT #{limit}</script>")
+    List<ConversationSummary> findPage(@Param("userId") Long userId, @Param("beforeMessageId") Long beforeMessageId,
+                                       @Param("limit") int limit);
+}
@@ -3,6 +3,7 @@ package com.gravity.ourmoments.mapper;
 import com.gravity.ourmoments.entity.Friendship;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import java.util.List;
 
 @Mapper
@@ -11,6 +12,7 @@ public interface FriendshipMapper {
     List<Friendship> findByUserId(Long userId);
     List<Friendship> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
     Friendship findByUserAndFriend(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    long[] findFriendIds(@Param("userId") Long userId);
     int insert(Friendship friendship);
     int update(Friendship friendship);
     int deleteById(Long friendshipId);
@@ -18,4 +20,5 @@ public interface FriendshipMapper {
 
     // Admin support
     List<Friendship> findAll();
+    Cursor<Friendship> streamAll();
 }
\ No newline at end of file
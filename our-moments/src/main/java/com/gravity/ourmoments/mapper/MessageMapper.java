@@ -1,32 +1,57 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.dto.UserCount;
 import com.gravity.ourmoments.entity.Message;
 import org.apache.ibatis.annotations.*;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface MessageMapper {
 
-    @Insert("INSERT INTO sys_message (sender_id, receiver_id, content, is_read, create_time, update_time) " +
-            "VALUES (#{senderId}, #{receiverId}, #{content}, #{isRead}, #{createTime}, #{updateTime})")
+    // 多行插入，MySQL 驱动按顺序回填每行的 message_id
+    @Insert("<script>INSERT INTO sys_message (sender_id, receiver_id, content, is_read, create_time, update_time) VALUES " +
+            "<foreach collection='messages' item='m' separator=','>" +
+            "(#{m.senderId}, #{m.receiverId}, #{m.content}, #{m.isRead}, #{m.createTime}, #{m.updateTime})" +
+            "</foreach></script>")
     @Options(useGeneratedKeys = true, keyProperty = "messageId")
-    void insert(Message message);
+    void insertBatch(@Param("messages") List<Message> messages);
 
     @Select("SELECT * FROM sys_message WHERE message_id = #{messageId}")
     Message findById(Long messageId);
 
-    @Select("SELECT * FROM sys_message WHERE (sender_id = #{userId} AND receiver_id = #{friendId}) " +
-            "OR (sender_id = #{friendId} AND receiver_id = #{userId}) ORDER BY create_time ASC")
+    // conversation_key 是生成列 "较小id:较大id"，两个方向的消息都走 idx_conversation_message
+    @Select("SELECT * FROM sys_message " +
+            "WHERE conversation_key = CONCAT(LEAST(#{userId}, #{friendId}), ':', GREATEST(#{userId}, #{friendId})) " +
+            "ORDER BY message_id ASC")
     List<Message> findChatHistory(Long userId, Long friendId);
 
+    /**
+     * 一页聊天记录，按 message_id 倒序（最新的在前）；beforeId 为 null 时从最新一条开始
+     */
+    @Select("<script>SELECT * FROM sys_message " +
+            "WHERE conversation_key = CONCAT(LEAST(#{userId}, #{friendId}), ':', GREATEST(#{userId}, #{friendId})) " +
+            "<if test='beforeId != null'>AND message_id &lt; #{beforeId} </if>" +
+            "ORDER BY message_id DESC LIMIT #{limit}</script>")
+    List<Message> findChatHistoryBefore(@Param("userId") Long userId, @Param("friendId") Long friendId,
+                                        @Param("beforeId") Long beforeId, @Param("limit") int limit);
+
     @Select("SELECT * FROM sys_message WHERE receiver_id = #{userId} AND is_read = false ORDER BY create_time ASC")
     List<Message> findUnreadMessages(Long userId);
 
+    @Select("SELECT COUNT(*) FROM sys_message WHERE receiver_id = #{userId} AND is_read = false")
+    int countUnread(Long userId);
+
+    @Select("<script>SELECT receiver_id AS user_id, COUNT(*) AS count FROM sys_message WHERE is_read = false " +
+            "AND receiver_id IN <foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY receiver_id</script>")
+    List<UserCount> countUnreadByReceiverIds(@Param("userIds") Collection<Long> userIds);
+
     @Update("UPDATE sys_message SET is_read = true, update_time = #{updateTime} " +
             "WHERE receiver_id = #{userId} AND sender_id = #{senderId} AND is_read = false")
-    void markAsRead(Long userId, Long senderId, LocalDateTime updateTime);
+    int markAsRead(Long userId, Long senderId, LocalDateTime updateTime);
 
     @Delete("DELETE FROM sys_message WHERE message_id = #{messageId}")
     void deleteById(Long messageId);
@@ -1,8 +1,10 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.dto.UserCount;
 import com.gravity.ourmoments.entity.Notification;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -13,6 +15,14 @@ public interface NotificationMapper {
     @Options(useGeneratedKeys = true, keyProperty = "notificationId")
     void insert(Notification notification);
 
+    // 多行插入，MySQL 驱动按顺序回填每行的 notification_id
+    @Insert("<script>INSERT INTO sys_notification (user_id, type, content, related_id, is_read, create_time) VALUES " +
+            "<foreach collection='notifications' item='n' separator=','>" +
+            "(#{n.userId}, #{n.type}, #{n.content}, #{n.relatedId}, #{n.isRead}, #{n.createTime})" +
+            "</foreach></script>")
+    @Options(useGeneratedKeys = true, keyProperty = "notificationId")
+    void insertBatch(@Param("notifications") List<Notification> notifications);
+
     @Select("SELECT * FROM sys_notification WHERE notification_id = #{notificationId}")
     Notification findById(Long notificationId);
 
@@ -22,8 +32,14 @@ public interface NotificationMapper {
     @Select("SELECT COUNT(*) FROM sys_notification WHERE user_id = #{userId} AND is_read = false")
     int countUnreadByUserId(Long userId);
 
-    @Update("UPDATE sys_notification SET is_read = true WHERE notification_id = #{notificationId}")
-    void markAsRead(Long notificationId);
+    @Select("<script>SELECT user_id, COUNT(*) AS count FROM sys_notification WHERE is_read = false AND user_id IN " +
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY user_id</script>")
+    List<UserCount> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // 返回 1 表示这条通知此前未读
+    @Update("UPDATE sys_notification SET is_read = true WHERE notification_id = #{notificationId} AND is_read = false")
+    int markAsRead(Long notificationId);
 
     @Update("UPDATE sys_notification SET is_read = true WHERE user_id = #{userId}")
     void markAllAsRead(Long userId);
@@ -0,0 +1,40 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.dto.OutboxStats;
+import com.gravity.ourmoments.entity.OutboxEvent;
+import org.apache.ibatis.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface OutboxMapper {
+
+    @Insert("<script>INSERT INTO sys_outbox (event_type, payload, status, attempts, next_attempt_time, create_time) VALUES " +
+            "<foreach collection='events' item='e' separator=','>" +
+            "(#{e.eventType}, #{e.payload}, 0, 0, NOW(), NOW())" +
+            "</foreach></script>")
+    @Options(useGeneratedKeys = true, keyProperty = "outboxId")
+    void insertBatch(@Param("events") List<OutboxEvent> events);
+
+    // 多个节点可以同时拉取，SKIP LOCKED 让它们各自拿到不同的行
+    @Select("SELECT * FROM sys_outbox WHERE status = 0 AND next_attempt_time <= NOW() " +
+            "ORDER BY outbox_id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<OutboxEvent> claimBatch(@Param("limit") int limit);
+
+    @Delete("<script>DELETE FROM sys_outbox WHERE outbox_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Update("UPDATE sys_outbox SET attempts = attempts + 1, last_error = #{lastError}, status = #{status}, " +
+            "next_attempt_time = DATE_ADD(NOW(), INTERVAL #{delaySeconds} SECOND) WHERE outbox_id = #{outboxId}")
+    int markFailed(@Param("outboxId") Long outboxId, @Param("status") int status,
+                   @Param("delaySeconds") long delaySeconds, @Param("lastError") String lastError);
+
+    // delivered / retried 是进程内计数，这里只填积压部分
+    @Select("SELECT COUNT(CASE WHEN status = 0 THEN 1 END) AS pending, " +
+            "COUNT(CASE WHEN status = 2 THEN 1 END) AS dead, " +
+            "COALESCE(TIMESTAMPDIFF(SECOND, MIN(CASE WHEN status = 0 THEN create_time END), NOW()), 0) AS lag_seconds " +
+            "FROM sys_outbox")
+    OutboxStats findBacklog();
+}
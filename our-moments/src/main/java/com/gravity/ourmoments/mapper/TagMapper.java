@@ -1,15 +1,24 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.entity.PostTag;
 import com.gravity.ourmoments.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface TagMapper {
     Tag findById(Long tagId);
     Tag findByName(String name);
+    List<Tag> findByIds(@Param("tagIds") Collection<Long> tagIds);
+    List<Tag> findByNames(@Param("names") Collection<String> names);
+    List<Tag> findByNamesForShare(@Param("names") Collection<String> names);
     List<Tag> findAll();
     List<Tag> findByPostId(Long postId);
+    List<PostTag> findByPostIds(@Param("postIds") Collection<Long> postIds);
     int insert(Tag tag);
+    int insertNames(@Param("names") Collection<String> names);
     int deleteById(Long tagId);
 }
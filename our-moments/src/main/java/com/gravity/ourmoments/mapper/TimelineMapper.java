@@ -0,0 +1,36 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.entity.BlogPost;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface TimelineMapper {
+    // Keyset page of a reader's timeline, newest first
+    List<BlogPost> findPageBefore(@Param("userId") Long userId,
+                                  @Param("cursorTime") LocalDateTime cursorTime,
+                                  @Param("cursorId") Long cursorId,
+                                  @Param("limit") int limit);
+    List<PostSummary> findSummaryPageBefore(@Param("userId") Long userId,
+                                            @Param("cursorTime") LocalDateTime cursorTime,
+                                            @Param("cursorId") Long cursorId,
+                                            @Param("limit") int limit,
+                                            @Param("excerptLength") int excerptLength);
+
+    int insertEntries(@Param("postId") Long postId, @Param("userIds") Collection<Long> userIds);
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // Friendship changes
+    int insertPairEntries(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    int deletePairEntries(@Param("userId") Long userId, @Param("friendId") Long friendId);
+
+    // Backfill from existing posts and friendships
+    int backfillAuthors();
+    int backfillFriends();
+    int backfillPartners();
+}
@@ -1,19 +1,25 @@
 package com.gravity.ourmoments.mapper;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface UserMapper {
     User findById(Long userId);
+    ResourceVersion findVersionById(Long userId);
     User findByUsername(String username);
+    List<User> findByIds(@Param("userIds") Collection<Long> userIds);
     int insert(User user);
     int update(User user);
     int deleteById(Long userId);
 
     // Admin support
     List<User> findAll();
+    Cursor<User> streamAll();
     List<User> findByRole(@Param("role") String role);
 }
@@ -0,0 +1,608 @@
+package com.gravity.ourmoments.search;
+
+import com.gravity.ourmoments.dto.SearchDocument;
+import com.gravity.ourmoments.util.LongHashSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内全文索引：标题、正文、地点、标签名 → 倒排表（按内部文档序号递增），BM25 排序。
+ * <p>
+ * 只索引已发布日志。日志更新时旧序号标记删除、追加新序号，因此倒排表始终有序、只需追加；
+ * 删除的文档过多时整体压缩。可见性在内存中按作者/可见性过滤，最终结果仍由 SQL 再校验一次。
+ */
+@Slf4j
+@Component
+public class PostSearchIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x504F5349; // "POSI"
+    // 2：每个汉字都有单字倒排表；旧快照缺少单字，忽略后从数据库重建
+    private static final int SNAPSHOT_VERSION = 2;
+
+    // 标题和标签命中比正文更重要
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final byte VIS_PUBLIC = 0;
+    private static final byte VIS_FRIENDS = 1;
+    private static final byte VIS_PARTNER = 2;
+    private static final byte VIS_PRIVATE = 3;
+    private static final byte VIS_UNKNOWN = 4;
+
+    private static final int PUBLISHED = 1;
+
+    @Value("${app.search.snapshot-path:data/post-search.idx}")
+    private String snapshotPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Postings> dictionary = new HashMap<>();
+    private Map<Long, Integer> ordinalByPost = new HashMap<>();
+    private BitSet deleted = new BitSet();
+
+    private long[] postIds = new long[1024];
+    private long[] authorIds = new long[1024];
+    private long[] createTimes = new long[1024];
+    private long[] updateTimes = new long[1024];
+    private int[] docLengths = new int[1024];
+    private byte[] visibilities = new byte[1024];
+
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    private long highWaterMark;
+
+    /**
+     * Adds or replaces a post. Unpublished posts are removed; a document older than the indexed
+     * version of the same post is ignored.
+     */
+    public void index(SearchDocument document) {
+        if (document == null || document.getPostId() == null) {
+            return;
+        }
+        if (document.getStatus() == null || document.getStatus() != PUBLISHED) {
+            remove(document.getPostId());
+            return;
+        }
+
+        long updateTime = toMillis(document.getUpdateTime());
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, PostTokenizer.tokenize(document.getTitle()), TITLE_WEIGHT);
+        addTerms(frequencies, PostTokenizer.tokenize(document.getContent()), 1);
+        addTerms(frequencies, PostTokenizer.tokenize(document.getLocation()), 1);
+        addTerms(frequencies, PostTokenizer.tokenize(document.getTagText()), TAG_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByPost.get(document.getPostId());
+            if (existing != null) {
+                if (updateTimes[existing] > updateTime) {
+                    return;
+                }
+                markDeleted(existing);
+            }
+
+            int ordinal = docCount++;
+            ensureDocCapacity(docCount);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+                length += entry.getValue();
+            }
+            postIds[ordinal] = document.getPostId();
+            authorIds[ordinal] = document.getUserId() != null ? document.getUserId() : 0L;
+            createTimes[ordinal] = toMillis(document.getCreateTime());
+            updateTimes[ordinal] = updateTime;
+            docLengths[ordinal] = length;
+            visibilities[ordinal] = visibilityCode(document.getVisibility());
+            totalLength += length;
+            ordinalByPost.put(document.getPostId(), ordinal);
+            highWaterMark = Math.max(highWaterMark, updateTime);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByPost.remove(postId);
+            if (ordinal != null) {
+                markDeleted(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes indexed posts missing from {@code livePostIds} that were last indexed before {@code indexedBefore};
+     * drops posts deleted on other nodes without touching posts indexed while the id list was being read.
+     */
+    public int retainAll(LongHashSet livePostIds, LocalDateTime indexedBefore) {
+        long cutoff = toMillis(indexedBefore);
+        lock.writeLock().lock();
+        try {
+            List<Long> missing = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : ordinalByPost.entrySet()) {
+                if (!livePostIds.contains(entry.getKey()) && updateTimes[entry.getValue()] < cutoff) {
+                    missing.add(entry.getKey());
+                }
+            }
+            for (Long postId : missing) {
+                markDeleted(ordinalByPost.remove(postId));
+            }
+            return missing.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} post ids ranked by BM25 (newer first on ties). Every query term
+     * must match. {@code friendIds} is the viewer's friend set; both may be null for anonymous.
+     */
+    public List<Long> search(String query, Long viewerId, LongHashSet friendIds, int limit) {
+        Set<String> terms = new LinkedHashSet<>(PostTokenizer.tokenizeQuery(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings postings = dictionary.get(term);
+                if (postings == null || postings.size == 0) {
+                    return new ArrayList<>();
+                }
+                lists.add(postings);
+            }
+            // 从最短的倒排表开始求交集
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            int liveCount = docCount - deletedCount;
+            double averageLength = liveCount > 0 ? (double) totalLength / liveCount : 1.0;
+            double[] idf = new double[lists.size()];
+            for (int t = 0; t < lists.size(); t++) {
+                int df = Math.min(lists.get(t).size, Math.max(liveCount, 1));
+                idf[t] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+            int[] cursors = new int[lists.size()];
+            Postings first = lists.get(0);
+
+            candidates:
+            for (int i = 0; i < first.size; i++) {
+                int doc = first.docs[i];
+                if (deleted.get(doc) || !isVisible(doc, viewerId, friendIds)) {
+                    continue;
+                }
+
+                double score = idf[0] * termScore(first.freqs[i], docLengths[doc], averageLength);
+                for (int t = 1; t < lists.size(); t++) {
+                    Postings postings = lists.get(t);
+                    int position = postings.advance(cursors[t], doc);
+                    cursors[t] = position;
+                    if (position >= postings.size) {
+                        break candidates;
+                    }
+                    if (postings.docs[position] != doc) {
+                        continue candidates;
+                    }
+                    score += idf[t] * termScore(postings.freqs[position], docLengths[doc], averageLength);
+                }
+
+                top.offer(new Hit(doc, score, createTimes[doc]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            List<Long> result = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                result.add(postIds[hit.doc]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Latest update_time (epoch millis) seen by the index; used to catch up from the database after a restart.
+     */
+    public LocalDateTime getHighWaterMark() {
+        lock.readLock().lock();
+        try {
+            return highWaterMark > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(highWaterMark), ZoneId.systemDefault()) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes live documents and postings (delta + varint encoded) to the snapshot file atomically.
+     */
+    public void saveSnapshot() throws IOException {
+        Path target = Paths.get(snapshotPath);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            int[] remap = liveOrdinals();
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(highWaterMark);
+
+            out.writeInt(docCount - deletedCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (remap[doc] < 0) {
+                    continue;
+                }
+                out.writeLong(postIds[doc]);
+                out.writeLong(authorIds[doc]);
+                out.writeLong(createTimes[doc]);
+                out.writeLong(updateTimes[doc]);
+                out.writeInt(docLengths[doc]);
+                out.writeByte(visibilities[doc]);
+            }
+
+            int[] docs = new int[64];
+            int[] freqs = new int[64];
+            for (Map.Entry<String, Postings> entry : dictionary.entrySet()) {
+                Postings postings = entry.getValue();
+                if (docs.length < postings.size) {
+                    docs = new int[postings.size];
+                    freqs = new int[postings.size];
+                }
+                int live = 0;
+                for (int i = 0; i < postings.size; i++) {
+                    int mapped = remap[postings.docs[i]];
+                    if (mapped >= 0) {
+                        docs[live] = mapped;
+                        freqs[live] = postings.freqs[i];
+                        live++;
+                    }
+                }
+                if (live == 0) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                writeVarInt(out, live);
+                int previous = 0;
+                for (int i = 0; i < live; i++) {
+                    writeVarInt(out, docs[i] - previous);
+                    writeVarInt(out, freqs[i]);
+                    previous = docs[i];
+                }
+            }
+            out.writeBoolean(false);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replaces the index with the snapshot file. Returns false if there is no usable snapshot.
+     */
+    public boolean loadSnapshot() {
+        Path source = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring post search snapshot with unknown format: {}", source);
+                return false;
+            }
+            long loadedHighWater = in.readLong();
+
+            int count = in.readInt();
+            int capacity = Math.max(count, 1024);
+            long[] loadedPostIds = new long[capacity];
+            long[] loadedAuthorIds = new long[capacity];
+            long[] loadedCreateTimes = new long[capacity];
+            long[] loadedUpdateTimes = new long[capacity];
+            int[] loadedLengths = new int[capacity];
+            byte[] loadedVisibilities = new byte[capacity];
+            Map<Long, Integer> loadedOrdinals = new HashMap<>(count * 2);
+            long loadedTotalLength = 0;
+            for (int doc = 0; doc < count; doc++) {
+                loadedPostIds[doc] = in.readLong();
+                loadedAuthorIds[doc] = in.readLong();
+                loadedCreateTimes[doc] = in.readLong();
+                loadedUpdateTimes[doc] = in.readLong();
+                loadedLengths[doc] = in.readInt();
+                loadedVisibilities[doc] = in.readByte();
+                loadedTotalLength += loadedLengths[doc];
+                loadedOrdinals.put(loadedPostIds[doc], doc);
+            }
+
+            Map<String, Postings> loadedDictionary = new HashMap<>();
+            while (in.readBoolean()) {
+                String term = in.readUTF();
+                int size = readVarInt(in);
+                Postings postings = new Postings(size);
+                int doc = 0;
+                for (int i = 0; i < size; i++) {
+                    doc += readVarInt(in);
+                    postings.add(doc, readVarInt(in));
+                }
+                loadedDictionary.put(term, postings);
+            }
+
+            lock.writeLock().lock();
+            try {
+                dictionary = loadedDictionary;
+                ordinalByPost = loadedOrdinals;
+                deleted = new BitSet();
+                postIds = loadedPostIds;
+                authorIds = loadedAuthorIds;
+                createTimes = loadedCreateTimes;
+                updateTimes = loadedUpdateTimes;
+                docLengths = loadedLengths;
+                visibilities = loadedVisibilities;
+                docCount = count;
+                deletedCount = 0;
+                totalLength = loadedTotalLength;
+                highWaterMark = loadedHighWater;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded post search snapshot with {} posts from {}", count, source);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load post search snapshot {}, rebuilding from database", source, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (size() == 0) {
+            return;
+        }
+        try {
+            saveSnapshot();
+        } catch (IOException e) {
+            log.warn("Failed to write post search snapshot", e);
+        }
+    }
+
+    private boolean isVisible(int doc, Long viewerId, LongHashSet friendIds) {
+        long authorId = authorIds[doc];
+        if (viewerId != null && viewerId == authorId) {
+            return true;
+        }
+        switch (visibilities[doc]) {
+            case VIS_PUBLIC:
+                return true;
+            case VIS_FRIENDS:
+                return viewerId != null && friendIds != null && friendIds.contains(authorId);
+            case VIS_PARTNER:
+                // 伴侣可见：仅限用户1和100
+                return viewerId != null && ((authorId == 1L && viewerId == 100L) || (authorId == 100L && viewerId == 1L));
+            default:
+                return false;
+        }
+    }
+
+    private static double termScore(int frequency, int docLength, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * docLength / averageLength));
+    }
+
+    private void markDeleted(int ordinal) {
+        if (!deleted.get(ordinal)) {
+            deleted.set(ordinal);
+            deletedCount++;
+            totalLength -= docLengths[ordinal];
+        }
+        if (deletedCount > 10_000 && deletedCount > docCount / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops deleted documents and renumbers the survivors. Caller holds the write lock.
+     */
+    private void compact() {
+        int[] remap = liveOrdinals();
+        int live = docCount - deletedCount;
+
+        for (Iterator<Postings> it = dictionary.values().iterator(); it.hasNext(); ) {
+            Postings postings = it.next();
+            postings.retain(remap);
+            if (postings.size == 0) {
+                it.remove();
+            }
+        }
+        for (int doc = 0; doc < docCount; doc++) {
+            int target = remap[doc];
+            if (target >= 0) {
+                postIds[target] = postIds[doc];
+                authorIds[target] = authorIds[doc];
+                createTimes[target] = createTimes[doc];
+                updateTimes[target] = updateTimes[doc];
+                docLengths[target] = docLengths[doc];
+                visibilities[target] = visibilities[doc];
+            }
+        }
+        ordinalByPost.replaceAll((postId, ordinal) -> remap[ordinal]);
+        deleted = new BitSet();
+        docCount = live;
+        deletedCount = 0;
+    }
+
+    private int[] liveOrdinals() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            remap[doc] = deleted.get(doc) ? -1 : next++;
+        }
+        return remap;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= postIds.length) {
+            return;
+        }
+        int grown = Math.max(capacity, postIds.length + (postIds.length >> 1));
+        postIds = Arrays.copyOf(postIds, grown);
+        authorIds = Arrays.copyOf(authorIds, grown);
+        createTimes = Arrays.copyOf(createTimes, grown);
+        updateTimes = Arrays.copyOf(updateTimes, grown);
+        docLengths = Arrays.copyOf(docLengths, grown);
+        visibilities = Arrays.copyOf(visibilities, grown);
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, List<String> terms, int weight) {
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static byte visibilityCode(String visibility) {
+        if (visibility == null || visibility.isEmpty()) {
+            return VIS_PUBLIC;
+        }
+        switch (visibility.toUpperCase()) {
+            case "PUBLIC":
+                return VIS_PUBLIC;
+            case "FRIENDS":
+                return VIS_FRIENDS;
+            case "PARTNER":
+                return VIS_PARTNER;
+            case "PRIVATE":
+                return VIS_PRIVATE;
+            default:
+                return VIS_UNKNOWN;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+
+    /**
+     * 倒排表：按文档序号递增的 (doc, tf) 数组
+     */
+    private static final class Postings {
+        int[] docs;
+        int[] freqs;
+        int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            docs = new int[Math.max(capacity, 1)];
+            freqs = new int[Math.max(capacity, 1)];
+        }
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                int grown = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, grown);
+                freqs = Arrays.copyOf(freqs, grown);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /**
+         * First position at or after {@code from} whose doc is >= target (galloping search).
+         */
+        int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int low = from;
+            int step = 1;
+            int high = from + 1;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size);
+            int index = Arrays.binarySearch(docs, low + 1, high, target);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        void retain(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[docs[i]];
+                if (mapped >= 0) {
+                    docs[kept] = mapped;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    private record Hit(int doc, double score, long createTime) {
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparingLong(Hit::createTime)
+                .thenComparingInt(Hit::doc);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gravity.ourmoments.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 分词：拉丁字母/数字按单词切分；中日韩文字按二元组（bigram）切分，索引时每个汉字额外输出单字，
+ * 单字查询直接读单字倒排表，不必在查询时合并所有以它开头的 bigram。
+ */
+final class PostTokenizer {
+
+    static final int MAX_WORD_LENGTH = 40;
+
+    private PostTokenizer() {
+    }
+
+    /**
+     * Tokens for indexing: bigrams and unigrams of every CJK run, and Latin words.
+     */
+    static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * Tokens for a query: a CJK run of two or more characters only needs its bigrams; a lone
+     * CJK character is returned as a unigram.
+     */
+    static List<String> tokenizeQuery(String text) {
+        return tokenize(text, true);
+    }
+
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static List<String> tokenize(String text, boolean query) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        // NFKC 把全角字母数字折叠成半角
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        int previousCjk = -1;
+        int runLength = 0;
+
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                if (previousCjk >= 0) {
+                    tokens.add(new StringBuilder(4).appendCodePoint(previousCjk).appendCodePoint(codePoint).toString());
+                }
+                if (!query) {
+                    tokens.add(new String(Character.toChars(codePoint)));
+                }
+                previousCjk = codePoint;
+                runLength++;
+                continue;
+            }
+
+            flushRun(previousCjk, runLength, query, tokens);
+            previousCjk = -1;
+            runLength = 0;
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (word.length() < MAX_WORD_LENGTH) {
+                    word.appendCodePoint(codePoint);
+                }
+            } else {
+                flushWord(word, tokens);
+            }
+        }
+        flushRun(previousCjk, runLength, query, tokens);
+        flushWord(word, tokens);
+        return tokens;
+    }
+
+    private static void flushRun(int lastCjk, int runLength, boolean query, List<String> tokens) {
+        // 索引时单字已随 bigram 输出
+        if (lastCjk >= 0 && query && runLength == 1) {
+            tokens.add(new String(Character.toChars(lastCjk)));
+        }
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+}
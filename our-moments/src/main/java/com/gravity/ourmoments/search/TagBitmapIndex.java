@@ -0,0 +1,225 @@
+package com.gravity.ourmoments.search;
+
+import com.gravity.ourmoments.dto.PostTagRow;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 每个标签一份 Roaring 压缩位图（已发布日志的 post_id），标签筛选的 AND/OR/NOT 和分面计数都在内存中完成。
+ * <p>
+ * 同时按作者和可见性维护位图，筛选结果直接与“当前读者可见”位图求交。post_id 需在 int 范围内。
+ */
+@Component
+public class TagBitmapIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, RoaringBitmap> postsByTag = new HashMap<>();
+    private final Map<Long, RoaringBitmap> postsByAuthor = new HashMap<>();
+    private final RoaringBitmap published = new RoaringBitmap();
+    private final RoaringBitmap publicPosts = new RoaringBitmap();
+    private final RoaringBitmap friendsPosts = new RoaringBitmap();
+    private final RoaringBitmap partnerPosts = new RoaringBitmap();
+
+    /**
+     * Adds one (post, tag) row of a published post. Rows of the same post may arrive one by one.
+     */
+    public void add(PostTagRow row) {
+        int postId = Math.toIntExact(row.getPostId());
+        lock.writeLock().lock();
+        try {
+            published.add(postId);
+            postsByAuthor.computeIfAbsent(row.getUserId(), id -> new RoaringBitmap()).add(postId);
+            String visibility = row.getVisibility() == null || row.getVisibility().isEmpty()
+                    ? "PUBLIC" : row.getVisibility().toUpperCase();
+            switch (visibility) {
+                case "PUBLIC" -> publicPosts.add(postId);
+                case "FRIENDS" -> friendsPosts.add(postId);
+                case "PARTNER" -> partnerPosts.add(postId);
+                default -> {
+                    // PRIVATE 及未知可见性只通过作者位图对作者本人可见
+                }
+            }
+            if (row.getTagId() != null) {
+                postsByTag.computeIfAbsent(row.getTagId(), id -> new RoaringBitmap()).add(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removePost(Long postId, Long authorId) {
+        int id = Math.toIntExact(postId);
+        lock.writeLock().lock();
+        try {
+            published.remove(id);
+            publicPosts.remove(id);
+            friendsPosts.remove(id);
+            partnerPosts.remove(id);
+            RoaringBitmap authored = postsByAuthor.get(authorId);
+            if (authored != null) {
+                authored.remove(id);
+            }
+            for (RoaringBitmap tagged : postsByTag.values()) {
+                tagged.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps in the contents of an index rebuilt from the database; the rebuilt instance must not be used afterwards.
+     */
+    public void replaceWith(TagBitmapIndex rebuilt) {
+        lock.writeLock().lock();
+        try {
+            postsByTag.clear();
+            postsByTag.putAll(rebuilt.postsByTag);
+            postsByAuthor.clear();
+            postsByAuthor.putAll(rebuilt.postsByAuthor);
+            copy(rebuilt.published, published);
+            copy(rebuilt.publicPosts, publicPosts);
+            copy(rebuilt.friendsPosts, friendsPosts);
+            copy(rebuilt.partnerPosts, partnerPosts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void copy(RoaringBitmap source, RoaringBitmap target) {
+        target.clear();
+        target.or(source);
+    }
+
+    public void removeTag(Long tagId) {
+        lock.writeLock().lock();
+        try {
+            postsByTag.remove(tagId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Posts visible to the viewer that carry every tag in {@code all}, at least one tag in {@code any}
+     * (if given) and none of the tags in {@code none}. Empty {@code all}/{@code any} means all posts.
+     */
+    public RoaringBitmap match(Collection<Long> all, Collection<Long> any, Collection<Long> none,
+                               Long viewerId, LongHashSet friendIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            if (all != null && !all.isEmpty()) {
+                List<RoaringBitmap> required = new ArrayList<>(all.size());
+                for (Long tagId : all) {
+                    RoaringBitmap tagged = postsByTag.get(tagId);
+                    if (tagged == null) {
+                        return new RoaringBitmap();
+                    }
+                    required.add(tagged);
+                }
+                result = FastAggregation.and(required.iterator());
+            }
+            if (any != null && !any.isEmpty()) {
+                RoaringBitmap union = union(any);
+                result = result == null ? union : RoaringBitmap.and(result, union);
+            }
+            if (result == null) {
+                result = published.clone();
+            }
+            if (none != null && !none.isEmpty()) {
+                result.andNot(union(none));
+            }
+            result.and(visibleTo(viewerId, friendIds));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} post ids from the bitmap, highest (newest) first, strictly below {@code beforeId}.
+     */
+    public List<Long> page(RoaringBitmap matched, Long beforeId, int limit) {
+        RoaringBitmap candidates = beforeId != null
+                ? RoaringBitmap.remove(matched, Math.max(beforeId, 0L), 1L << 32)
+                : matched;
+        List<Long> ids = new ArrayList<>(limit);
+        IntIterator iterator = candidates.getReverseIntIterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Number of matched posts per tag, zero counts omitted.
+     */
+    public Map<Long, Integer> facets(RoaringBitmap matched) {
+        Map<Long, Integer> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, RoaringBitmap> entry : postsByTag.entrySet()) {
+                int count = RoaringBitmap.andCardinality(matched, entry.getValue());
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    private RoaringBitmap union(Collection<Long> tagIds) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(tagIds.size());
+        for (Long tagId : tagIds) {
+            RoaringBitmap tagged = postsByTag.get(tagId);
+            if (tagged != null) {
+                bitmaps.add(tagged);
+            }
+        }
+        return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+    }
+
+    /**
+     * PUBLIC ∪ 自己的 ∪ (FRIENDS ∩ 好友的) ∪ (PARTNER ∩ 伴侣的)，伴侣仅限用户1和100
+     */
+    private RoaringBitmap visibleTo(Long viewerId, LongHashSet friendIds) {
+        if (viewerId == null) {
+            return publicPosts;
+        }
+
+        List<RoaringBitmap> parts = new ArrayList<>();
+        parts.add(publicPosts);
+        RoaringBitmap own = postsByAuthor.get(viewerId);
+        if (own != null) {
+            parts.add(own);
+        }
+        if (friendIds != null && !friendIds.isEmpty()) {
+            List<RoaringBitmap> friendPosts = new ArrayList<>();
+            friendIds.forEach(friendId -> {
+                RoaringBitmap authored = postsByAuthor.get(friendId);
+                if (authored != null) {
+                    friendPosts.add(authored);
+                }
+            });
+            if (!friendPosts.isEmpty()) {
+                parts.add(RoaringBitmap.and(friendsPosts, FastAggregation.or(friendPosts.iterator())));
+            }
+        }
+        Long partnerId = viewerId == 1L ? Long.valueOf(100L) : viewerId == 100L ? Long.valueOf(1L) : null;
+        RoaringBitmap partnerAuthored = partnerId != null ? postsByAuthor.get(partnerId) : null;
+        if (partnerAuthored != null) {
+            parts.add(RoaringBitmap.and(partnerPosts, partnerAuthored));
+        }
+        return FastAggregation.or(parts.iterator());
+    }
+}
@@ -0,0 +1,67 @@
+package com.gravity.ourmoments.security;
+
+import com.gravity.ourmoments.service.ChatSessionContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP CONNECT 时校验 Authorization 头中的 JWT，把用户 ID 绑定到会话；
+ * 之后的 SEND 帧直接从会话属性取用户 ID，不再查库。
+ */
+@Slf4j
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ChatSessionContext chatSessionContext;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        CustomUserDetails userDetails = authenticate(accessor.getFirstNativeHeader("Authorization"));
+        if (userDetails == null && accessor.getUser() instanceof UsernamePasswordAuthenticationToken handshakeUser
+                && handshakeUser.getPrincipal() instanceof CustomUserDetails details) {
+            // 握手请求本身已认证
+            userDetails = details;
+        }
+        if (userDetails != null) {
+            // 会话用户名取用户 ID，用户目的地 /user/queue/... 按它解析
+            accessor.setUser(new StompUserPrincipal(userDetails.getUserId()));
+            chatSessionContext.register(accessor.getSessionId(), accessor.getSessionAttributes(), userDetails.getUserId());
+        }
+        return message;
+    }
+
+    private CustomUserDetails authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        String jwt = authorizationHeader.substring(7);
+        try {
+            String username = jwtUtil.extractUsername(jwt);
+            CustomUserDetails userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(username);
+            return jwtUtil.validateToken(jwt, userDetails.getUsername()) ? userDetails : null;
+        } catch (Exception e) {
+            log.warn("STOMP CONNECT authentication failed: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.gravity.ourmoments.security;
+
+import java.security.Principal;
+
+/**
+ * STOMP 会话的用户。名称是用户 ID，与 convertAndSendToUser(userId.toString(), ...) 对应，
+ * 使用外部代理时也作为共享用户注册表中的键。
+ */
+public class StompUserPrincipal implements Principal {
+
+    private final Long userId;
+
+    public StompUserPrincipal(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StompUserPrincipal principal && userId.equals(principal.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return userId.hashCode();
+    }
+}
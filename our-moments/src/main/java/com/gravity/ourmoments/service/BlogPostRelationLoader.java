@@ -0,0 +1,115 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.cache.DictionaryCache;
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.entity.*;
+import com.gravity.ourmoments.mapper.BlogMediaMapper;
+import com.gravity.ourmoments.mapper.TagMapper;
+import com.gravity.ourmoments.mapper.UserMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 批量加载日志的作者、分类、媒体和标签。
+ * 每种关系只发一条 IN (...) 查询，查询次数与页大小无关，替代原先 BlogPostResultMap 的逐行嵌套查询；
+ * 分类来自 DictionaryCache，通常不需要查询。
+ */
+@Component
+public class BlogPostRelationLoader {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Autowired
+    private BlogMediaMapper blogMediaMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    /**
+     * 单篇日志的详情读取，post 为 null 时原样返回
+     */
+    public BlogPost loadOne(BlogPost post) {
+        if (post != null) {
+            load(Collections.singletonList(post));
+        }
+        return post;
+    }
+
+    public List<BlogPost> load(List<BlogPost> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return posts;
+        }
+
+        Set<Long> postIds = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (BlogPost post : posts) {
+            postIds.add(post.getPostId());
+            if (post.getUserId() != null) {
+                userIds.add(post.getUserId());
+            }
+            if (post.getCategoryId() != null) {
+                categoryIds.add(post.getCategoryId());
+            }
+        }
+
+        Map<Long, User> authors = userIds.isEmpty() ? Map.of()
+                : userMapper.findByIds(userIds).stream()
+                        .map(BlogPostRelationLoader::publicProfile)
+                        .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        Map<Long, Category> categories = categoryIds.isEmpty() ? Map.of()
+                : dictionaryCache.getCategories(categoryIds);
+        Map<Long, List<BlogMedia>> mediaByPost = blogMediaMapper.findByPostIds(postIds).stream()
+                .collect(Collectors.groupingBy(BlogMedia::getPostId));
+        Map<Long, List<Tag>> tagsByPost = tagMapper.findByPostIds(postIds).stream()
+                .collect(Collectors.groupingBy(PostTag::getPostId,
+                        Collectors.mapping(PostTag::getTag, Collectors.toList())));
+
+        for (BlogPost post : posts) {
+            post.setAuthor(authors.get(post.getUserId()));
+            post.setCategory(post.getCategoryId() != null ? categories.get(post.getCategoryId()) : null);
+            post.setMediaList(mediaByPost.getOrDefault(post.getPostId(), new ArrayList<>()));
+            post.setTagList(tagsByPost.getOrDefault(post.getPostId(), new ArrayList<>()));
+        }
+        return posts;
+    }
+
+    /**
+     * 日志里嵌入的作者只是展示用资料，不能带出密码和邮箱
+     */
+    private static User publicProfile(User user) {
+        // 复制一份：同一 SqlSession 的一级缓存可能把同一个对象再交给别的查询
+        User profile = new User();
+        BeanUtils.copyProperties(user, profile, "password", "email");
+        return profile;
+    }
+
+    /**
+     * 卡片投影只需要标签名：同样一条 IN 查询
+     */
+    public List<PostSummary> loadTagNames(List<PostSummary> summaries) {
+        if (summaries == null || summaries.isEmpty()) {
+            return summaries;
+        }
+
+        Set<Long> postIds = summaries.stream().map(PostSummary::getPostId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, List<String>> namesByPost = tagMapper.findByPostIds(postIds).stream()
+                .collect(Collectors.groupingBy(PostTag::getPostId,
+                        Collectors.mapping(postTag -> postTag.getTag().getName(), Collectors.toList())));
+
+        for (PostSummary summary : summaries) {
+            summary.setTagNames(namesByPost.getOrDefault(summary.getPostId(), new ArrayList<>()));
+        }
+        return summaries;
+    }
+}
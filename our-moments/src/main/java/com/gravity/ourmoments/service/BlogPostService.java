@@ -1,14 +1,42 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.dto.CursorPage;
+import com.gravity.ourmoments.dto.DraftPatch;
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.BlogPost;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BlogPostService {
     BlogPost getPostById(Long postId);
+    // Columns only, without author/media/tags; for ownership checks
+    BlogPost getPostHeader(Long postId);
     List<BlogPost> getPosts(Long userId, Long categoryId, Integer status);
     List<BlogPost> getVisiblePosts(Long currentUserId);
     List<BlogPost> getVisiblePostsByUserId(Long userId, Long currentUserId);
     BlogPost getVisiblePostById(Long postId, Long currentUserId);
+    // null if the post does not exist or is not visible to the viewer
+    ResourceVersion getVisiblePostVersion(Long postId, Long currentUserId);
+    CursorPage<BlogPost> getVisiblePostsPage(Long userId, Long currentUserId,
+                                             LocalDateTime cursorTime, Long cursorId, int size);
+    CursorPage<PostSummary> getVisibleSummaryPage(Long userId, Long currentUserId,
+                                                  LocalDateTime cursorTime, Long cursorId, int size);
+    // Card projections for list endpoints
+    List<PostSummary> getPostSummaries(Long userId, Long categoryId, Integer status);
+    List<PostSummary> getVisiblePostSummaries(Long userId, Long currentUserId);
+    List<PostSummary> getDraftSummariesByUserId(Long userId);
+    // Ranked full-text search, visibility-filtered
+    List<PostSummary> searchPosts(String query, Long currentUserId, int limit);
+    // Tag filter: every tag in all, at least one in any, none of none; ordered by post id descending
+    CursorPage<PostSummary> getPostsByTags(List<Long> all, List<Long> any, List<Long> none,
+                                           Long currentUserId, Long cursorId, int size);
+    // Admin export: hands every post card to the consumer without building a list
+    void streamAllPostSummaries(Consumer<PostSummary> consumer);
+    CursorPage<BlogPost> getTimelinePage(Long currentUserId, LocalDateTime cursorTime, Long cursorId, int size);
+    CursorPage<PostSummary> getTimelineSummaryPage(Long currentUserId, LocalDateTime cursorTime, Long cursorId, int size);
     BlogPost createPost(BlogPost post);
     BlogPost updatePost(Long postId, BlogPost post);
     void deletePost(Long postId);
@@ -16,4 +44,6 @@ public interface BlogPostService {
     // Draft management
     List<BlogPost> getDraftsByUserId(Long userId);
     BlogPost getLatestDraftByUserId(Long userId);
+    // Writes a (coalesced) autosave patch; false if the post no longer exists or is no longer a draft
+    boolean applyDraftPatch(Long postId, DraftPatch patch);
 }
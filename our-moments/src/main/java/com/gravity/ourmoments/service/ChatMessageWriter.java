@@ -0,0 +1,13 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.entity.Message;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Group-commit writer for chat messages sent over STOMP: frames are queued and written together
+ * by {@link MessageService#saveMessages}. The future completes after the transaction has committed.
+ */
+public interface ChatMessageWriter {
+    CompletableFuture<Message> submit(Long senderId, Long receiverId, String content);
+}
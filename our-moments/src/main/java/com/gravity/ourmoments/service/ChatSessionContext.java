@@ -0,0 +1,105 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.event.FriendshipChangedEvent;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMP 会话内的身份和好友关系上下文。
+ * 用户 ID 在 CONNECT 时解析一次写入会话属性；好友 ID 集合在会话内首次用到时加载并缓存，
+ * 好友关系变化后清除双方在本节点所有会话中的缓存；relay 模式下变更可能发生在其他节点，
+ * 因此缓存的集合超过 friends-ttl-ms 后重新加载，跨节点的延迟不超过这个时间。
+ */
+@Component
+public class ChatSessionContext {
+
+    private static final String USER_ID_ATTR = ChatSessionContext.class.getName() + ".userId";
+    private static final String FRIENDS_ATTR = ChatSessionContext.class.getName() + ".friends";
+
+    @Autowired
+    private ViewerContext viewerContext;
+
+    @Value("${app.websocket.friends-ttl-ms:60000}")
+    private long friendsTtlMs;
+
+    // userId → (sessionId → 会话属性)，用于按用户清除缓存
+    private final Map<Long, Map<String, Map<String, Object>>> sessionsByUser = new ConcurrentHashMap<>();
+
+    // 每次好友关系变化递增；加载期间发生变化时不缓存加载结果
+    private final AtomicLong friendshipVersion = new AtomicLong();
+
+    /**
+     * Binds an authenticated STOMP session to a user; called once at CONNECT.
+     */
+    public void register(String sessionId, Map<String, Object> sessionAttributes, Long userId) {
+        if (sessionAttributes == null || userId == null) {
+            return;
+        }
+        sessionAttributes.put(USER_ID_ATTR, userId);
+        sessionsByUser.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(sessionId, sessionAttributes);
+    }
+
+    public Long getUserId(Map<String, Object> sessionAttributes) {
+        return sessionAttributes != null ? (Long) sessionAttributes.get(USER_ID_ATTR) : null;
+    }
+
+    public boolean areFriends(Map<String, Object> sessionAttributes, Long userId, Long otherId) {
+        if (userId == null || otherId == null) {
+            return false;
+        }
+        return getFriendIds(sessionAttributes, userId).contains(otherId);
+    }
+
+    public LongHashSet getFriendIds(Map<String, Object> sessionAttributes, Long userId) {
+        CachedFriends cached = (CachedFriends) sessionAttributes.get(FRIENDS_ATTR);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() < friendsTtlMs) {
+            return cached.friendIds();
+        }
+        long version = friendshipVersion.get();
+        LongHashSet friendIds = viewerContext.getFriendIds(userId);
+        if (friendshipVersion.get() == version) {
+            sessionAttributes.put(FRIENDS_ATTR, new CachedFriends(friendIds, now));
+        }
+        return friendIds;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleFriendshipChanged(FriendshipChangedEvent event) {
+        friendshipVersion.incrementAndGet();
+        evictFriends(event.getUserId());
+        evictFriends(event.getFriendId());
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = getUserId(SimpMessageHeaderAccessor.getSessionAttributes(event.getMessage().getHeaders()));
+        if (userId == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(event.getSessionId());
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private record CachedFriends(LongHashSet friendIds, long loadedAt) {
+    }
+
+    private void evictFriends(Long userId) {
+        Map<String, Map<String, Object>> sessions = sessionsByUser.get(userId);
+        if (sessions != null) {
+            sessions.values().forEach(attributes -> attributes.remove(FRIENDS_ATTR));
+        }
+    }
+}
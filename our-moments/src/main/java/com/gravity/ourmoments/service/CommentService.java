@@ -1,11 +1,14 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.Comment;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CommentService {
     Comment getCommentById(Long commentId);
     List<Comment> getCommentsByPostId(Long postId);
+    ResourceVersion getCommentsVersion(Long postId);
     List<Comment> getCommentsByPostIdAndPosition(Long postId, Integer position);
     Comment createComment(Comment comment);
     Comment updateComment(Long commentId, Comment comment);
@@ -14,4 +17,5 @@ public interface CommentService {
 
     // Admin support
     List<Comment> getAllComments();
+    void streamAllComments(Consumer<Comment> consumer);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.dto.DraftPatch;
+
+public interface DraftAutosaveService {
+
+    enum Result {
+        // 已写入预写日志和内存缓冲，稍后合并落库
+        BUFFERED,
+        // 新增/删除媒体等结构性修改，已立即落库
+        SAVED,
+        NOT_FOUND,
+        FORBIDDEN,
+        NOT_DRAFT
+    }
+
+    Result autosave(Long draftId, Long userId, DraftPatch patch);
+
+    // Writes any buffered changes of the draft now (before publish or a full update)
+    void flush(Long draftId);
+
+    // Drops buffered changes of a draft that is being deleted
+    void discard(Long draftId);
+
+    void flushAll();
+}
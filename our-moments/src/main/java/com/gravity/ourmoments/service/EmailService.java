@@ -1,6 +1,13 @@
 package com.gravity.ourmoments.service;
 
+import jakarta.mail.MessagingException;
+
 public interface EmailService {
     void sendEmail(String to, String subject, String content);
     void sendNewPostNotification(String to, String authorName, String postTitle, Long postId);
+
+    /**
+     * 同步发送新日志邮件，失败时抛出异常；供 outbox relay 调用，由它负责重试和死信
+     */
+    void deliverNewPostNotification(String to, String authorName, String postTitle, Long postId) throws MessagingException;
 }
@@ -2,6 +2,7 @@ package com.gravity.ourmoments.service;
 
 import com.gravity.ourmoments.entity.Friendship;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FriendshipService {
     Friendship getFriendshipById(Long friendshipId);
@@ -16,6 +17,7 @@ public interface FriendshipService {
 
     // Admin support
     List<Object> getAllFriendships();
+    void streamAllFriendships(Consumer<Friendship> consumer);
     Friendship createFriendship(Friendship friendship);
     Friendship updateFriendshipStatus(Long friendshipId, String status);
     void deleteFriendship(Long friendshipId);
@@ -1,13 +1,23 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.dto.ConversationSummary;
+import com.gravity.ourmoments.dto.CursorPage;
 import com.gravity.ourmoments.entity.Message;
 
 import java.util.List;
 
 public interface MessageService {
     Message sendMessage(Long senderId, Long receiverId, String content);
+    // One transaction: multi-row INSERT, conversation summaries, unread counters and notifications
+    List<Message> saveMessages(List<Message> messages);
     List<Message> getChatHistory(Long userId, Long friendId);
+    // Newest page first; items are oldest-to-newest, pass nextCursorId back as beforeId for older messages
+    CursorPage<Message> getChatHistoryPage(Long userId, Long friendId, Long beforeId, int limit);
+    // Inbox, most recently active first; pass nextCursorId back as beforeMessageId
+    CursorPage<ConversationSummary> getConversations(Long userId, Long beforeMessageId, int limit);
     List<Message> getUnreadMessages(Long userId);
+    // Served from the in-memory counter, for the unread badge
+    int getUnreadCount(Long userId);
     void markAsRead(Long userId, Long senderId);
     void deleteMessage(Long messageId);
     Message getMessageById(Long messageId);
@@ -1,10 +1,13 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.entity.Message;
 import com.gravity.ourmoments.entity.Notification;
 import java.util.List;
 
 public interface NotificationService {
     Notification createNotification(Notification notification);
+    // One multi-row INSERT and one outbox row per chunk, whatever the number of recipients
+    List<Notification> createNotifications(List<Notification> notifications);
     Notification getNotificationById(Long notificationId);
     List<Notification> getNotificationsByUserId(Long userId);
     int getUnreadCountByUserId(Long userId);
@@ -16,5 +19,6 @@ public interface NotificationService {
     void sendCommentNotification(Long postAuthorId, Long commenterId, Long postId, Long commentId, String postTitle);
     void sendFriendRequestNotification(Long recipientId, Long requesterId, Long friendshipId);
     void sendNewPostNotificationToFriends(Long authorId, Long postId, String postTitle);
-    void sendMessageNotification(Long receiverId, Long senderId, Long messageId, String messageContent);
+    // One notification per saved message; sender nicknames are read with a single IN query
+    void sendMessageNotifications(List<Message> messages);
 }
\ No newline at end of file
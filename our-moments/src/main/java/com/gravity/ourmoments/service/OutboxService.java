@@ -0,0 +1,15 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.dto.NewPostEmail;
+import com.gravity.ourmoments.dto.OutboxStats;
+import com.gravity.ourmoments.entity.Notification;
+
+import java.util.List;
+
+public interface OutboxService {
+    // 与调用方处于同一事务，提交后才会投递；回滚则什么都不发送
+    void publishNotifications(List<Notification> notifications);
+    void publishNewPostEmails(List<NewPostEmail> emails);
+
+    OutboxStats getStats();
+}
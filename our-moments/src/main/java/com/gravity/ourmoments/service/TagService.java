@@ -1,6 +1,8 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.dto.TagFacet;
 import com.gravity.ourmoments.entity.Tag;
+import java.util.Collection;
 import java.util.List;
 
 public interface TagService {
@@ -8,6 +10,11 @@ public interface TagService {
     Tag getTagById(Long tagId);
     Tag getTagByName(String name);
     Tag getOrCreateTag(String name);
+    List<Tag> getTagsByIds(Collection<Long> tagIds);
+    // Bulk get-or-create by name: one SELECT, plus one multi-row insert and one locking SELECT for missing names
+    List<Tag> resolveOrCreate(Collection<String> names);
     Tag createTag(Tag tag);
     void deleteTag(Long tagId);
+    // Per-tag post counts within the filtered, visible result set
+    List<TagFacet> getTagFacets(List<Long> all, List<Long> any, List<Long> none, Long currentUserId);
 }
@@ -0,0 +1,25 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.entity.BlogPost;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TimelineService {
+    // Reader side: one index range scan on blog_timeline
+    List<BlogPost> getTimelinePage(Long userId, LocalDateTime cursorTime, Long cursorId, int limit);
+    List<PostSummary> getTimelineSummaryPage(Long userId, LocalDateTime cursorTime, Long cursorId, int limit,
+                                             int excerptLength);
+
+    // Writer side: keep entries in sync with posts and friendships; fan-out returns the readers written to
+    Collection<Long> fanOutPost(Long postId);
+    Collection<Long> refreshPost(Long postId);
+    void retractPost(Long postId);
+    void onFriendshipAccepted(Long userId, Long friendId);
+    void onFriendshipEnded(Long userId, Long friendId);
+
+    // Rebuild entries for existing data, returns inserted row count
+    int backfill();
+}
@@ -1,10 +1,13 @@
 package com.gravity.ourmoments.service;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.User;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User getUserById(Long userId);
+    ResourceVersion getUserVersion(Long userId);
     User getUserByUsername(String username);
     User register(User user);
     User updateUser(Long userId, User user);
@@ -12,6 +15,7 @@ public interface UserService {
 
     // Admin support
     List<User> getAllUsers();
+    void streamAllUsers(Consumer<User> consumer);
     List<User> getUsersByRole(String role);
     User updateUserRole(Long userId, String role);
     User resetPassword(Long userId, String newPassword);
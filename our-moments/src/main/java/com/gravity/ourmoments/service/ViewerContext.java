@@ -0,0 +1,82 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.mapper.FriendshipMapper;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 当前请求内的好友关系上下文。
+ * 好友 ID 集合每个用户每个请求只查询一次并缓存在请求属性中；不在 HTTP 请求线程上时直接查询。
+ */
+@Component
+public class ViewerContext {
+
+    private static final String FRIENDS_ATTR_PREFIX = ViewerContext.class.getName() + ".friends.";
+
+    @Autowired
+    private FriendshipMapper friendshipMapper;
+
+    /**
+     * 获取用户 ACCEPTED 状态的好友 ID 集合
+     */
+    public LongHashSet getFriendIds(Long userId) {
+        if (userId == null) {
+            return new LongHashSet();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loadFriendIds(userId);
+        }
+        String key = FRIENDS_ATTR_PREFIX + userId;
+        LongHashSet friendIds = (LongHashSet) attributes.getAttribute(key, RequestAttributes.SCOPE_REQUEST);
+        if (friendIds == null) {
+            friendIds = loadFriendIds(userId);
+            attributes.setAttribute(key, friendIds, RequestAttributes.SCOPE_REQUEST);
+        }
+        return friendIds;
+    }
+
+    /**
+     * 判断两人是否为好友；优先复用本请求中已加载的任一方集合，否则加载第一个参数（通常是当前用户）的集合
+     */
+    public boolean areFriends(Long userId, Long otherId) {
+        if (userId == null || otherId == null) {
+            return false;
+        }
+        LongHashSet loaded = peek(otherId);
+        if (loaded != null) {
+            return loaded.contains(userId);
+        }
+        return getFriendIds(userId).contains(otherId);
+    }
+
+    /**
+     * 好友关系变化后清除本请求中的缓存
+     */
+    public void invalidate(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && userId != null) {
+            attributes.removeAttribute(FRIENDS_ATTR_PREFIX + userId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private LongHashSet peek(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (LongHashSet) attributes.getAttribute(FRIENDS_ATTR_PREFIX + userId, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private LongHashSet loadFriendIds(Long userId) {
+        long[] ids = friendshipMapper.findFriendIds(userId);
+        LongHashSet friendIds = new LongHashSet(ids.length);
+        for (long id : ids) {
+            friendIds.add(id);
+        }
+        return friendIds;
+    }
+}
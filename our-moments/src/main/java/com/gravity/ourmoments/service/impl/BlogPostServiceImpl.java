@@ -1,23 +1,54 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.cache.FeedCache;
+import com.gravity.ourmoments.dto.CursorPage;
+import com.gravity.ourmoments.dto.DraftPatch;
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.BlogMedia;
 import com.gravity.ourmoments.entity.BlogPost;
 import com.gravity.ourmoments.entity.Tag;
+import com.gravity.ourmoments.event.PostChangedEvent;
+import com.gravity.ourmoments.event.PostPublishedEvent;
+import com.gravity.ourmoments.event.TimelineFanOutEvent;
 import com.gravity.ourmoments.mapper.BlogMediaMapper;
 import com.gravity.ourmoments.mapper.BlogPostMapper;
+import com.gravity.ourmoments.search.PostSearchIndex;
+import com.gravity.ourmoments.search.TagBitmapIndex;
+import com.gravity.ourmoments.service.BlogPostRelationLoader;
 import com.gravity.ourmoments.service.BlogPostService;
-import com.gravity.ourmoments.service.FriendshipService;
-import com.gravity.ourmoments.service.NotificationService;
 import com.gravity.ourmoments.service.TagService;
+import com.gravity.ourmoments.service.TimelineService;
+import com.gravity.ourmoments.service.ViewerContext;
+import com.gravity.ourmoments.util.DraftPatches;
+import com.gravity.ourmoments.util.MediaDiff;
+import org.apache.ibatis.cursor.Cursor;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class BlogPostServiceImpl implements BlogPostService {
 
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MEDIA_BATCH_SIZE = 200;
+
     @Autowired
     private BlogPostMapper blogPostMapper;
 
@@ -25,22 +56,45 @@ public class BlogPostServiceImpl implements BlogPostService {
     private BlogMediaMapper blogMediaMapper;
 
     @Autowired
-    private FriendshipService friendshipService;
+    private BlogPostRelationLoader relationLoader;
 
     @Autowired
     private TagService tagService;
 
     @Autowired
-    private NotificationService notificationService;
+    private TimelineService timelineService;
+
+    @Autowired
+    private FeedCache feedCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private ViewerContext viewerContext;
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Value("${app.post-summary.excerpt-length:120}")
+    private int excerptLength;
 
     @Override
     public BlogPost getPostById(Long postId) {
-        return blogPostMapper.findById(postId);
+        return relationLoader.loadOne(blogPostMapper.findById(postId));
+    }
+
+    @Override
+    public BlogPost getPostHeader(Long postId) {
+        return blogPostMapper.findHeaderById(postId);
     }
 
     @Override
     public List<BlogPost> getPosts(Long userId, Long categoryId, Integer status) {
-        return blogPostMapper.findPosts(userId, categoryId, status);
+        return relationLoader.load(blogPostMapper.findPosts(userId, categoryId, status));
     }
 
     @Override
@@ -49,41 +103,32 @@ public class BlogPostServiceImpl implements BlogPostService {
         // 1. Insert Blog Post
         blogPostMapper.insert(post);
 
-        // 2. Insert Media
-        if (post.getMediaList() != null) {
+        // 2. Insert Media (multi-row INSERT, generated mediaIds are written back)
+        if (post.getMediaList() != null && !post.getMediaList().isEmpty()) {
             for (BlogMedia media : post.getMediaList()) {
                 media.setPostId(post.getPostId());
-                blogMediaMapper.insert(media);
             }
+            insertMedia(post.getMediaList());
         }
 
         // 3. Insert Tags (support creating new tags by name)
         if (post.getTagList() != null) {
-            for (Tag tag : post.getTagList()) {
-                Tag managedTag;
-                if (tag.getTagId() != null && tag.getTagId() > 0) {
-                    // 使用现有 tagId
-                    managedTag = tagService.getTagById(tag.getTagId());
-                } else if (tag.getName() != null && !tag.getName().trim().isEmpty()) {
-                    // 通过标签名称获取或创建标签
-                    managedTag = tagService.getOrCreateTag(tag.getName().trim());
-                } else {
-                    continue; // Skip invalid tag
-                }
-
-                if (managedTag != null) {
-                    blogPostMapper.addTagToPost(post.getPostId(), managedTag.getTagId());
-                }
-            }
+            attachTags(post.getPostId(), post.getTagList());
         }
 
-        // 4. 发布帖子后，通知好友（仅当帖子是已发布状态且可见性不是 PRIVATE）
+        // 4. 写扩散到读者时间线：事务提交后异步执行
+        eventPublisher.publishEvent(new TimelineFanOutEvent(post.getPostId(), post.getUserId()));
+
+        // 5. 发布帖子后，通知好友（仅当帖子是已发布状态且可见性不是 PRIVATE）；事务提交后异步扇出
         if (post.getStatus() != null && post.getStatus() == 1
             && !"PRIVATE".equals(post.getVisibility())) {
             String postTitle = post.getTitle() != null ? post.getTitle() : "新日志";
-            notificationService.sendNewPostNotificationToFriends(post.getUserId(), post.getPostId(), postTitle);
+            eventPublisher.publishEvent(new PostPublishedEvent(post.getPostId(), post.getUserId(), postTitle));
         }
 
+        eventPublisher.publishEvent(new PostChangedEvent(post.getPostId(), post.getUserId(),
+                null, normalizeVisibility(post.getVisibility())));
+
         return getPostById(post.getPostId());
     }
 
@@ -91,37 +136,27 @@ public class BlogPostServiceImpl implements BlogPostService {
     @Transactional
     public BlogPost updatePost(Long postId, BlogPost post) {
         post.setPostId(postId);
+        BlogPost before = blogPostMapper.findHeaderById(postId);
         blogPostMapper.update(post);
 
-        // Handle Media Update (Delete all and re-insert for simplicity in this MVP)
-        // In a real app, you might want to diff changes to avoid deleting files that haven't changed
+        // 只写变化的媒体和标签：未改动的行保持 media_id 不变，也不消耗自增 id
         if (post.getMediaList() != null) {
-            blogMediaMapper.deleteByPostId(postId);
-            for (BlogMedia media : post.getMediaList()) {
-                media.setPostId(postId);
-                blogMediaMapper.insert(media);
-            }
+            syncMedia(postId, post.getMediaList());
         }
-
-        // Handle Tag Update (Delete all and re-insert, support creating new tags)
         if (post.getTagList() != null) {
-            blogPostMapper.removeTagsFromPost(postId);
-            for (Tag tag : post.getTagList()) {
-                Tag managedTag;
-                if (tag.getTagId() != null && tag.getTagId() > 0) {
-                    // 使用现有 tagId
-                    managedTag = tagService.getTagById(tag.getTagId());
-                } else if (tag.getName() != null && !tag.getName().trim().isEmpty()) {
-                    // 通过标签名称获取或创建标签
-                    managedTag = tagService.getOrCreateTag(tag.getName().trim());
-                } else {
-                    continue; // Skip invalid tag
-                }
+            syncTags(postId, post.getTagList());
+        }
 
-                if (managedTag != null) {
-                    blogPostMapper.addTagToPost(postId, managedTag.getTagId());
-                }
-            }
+        // 可见性或发布状态可能变化：旧条目随事务撤回，避免失去权限的读者继续看到；提交后按新规则重新扩散
+        if (before != null && (post.getVisibility() != null || post.getStatus() != null)) {
+            timelineService.retractPost(postId);
+            eventPublisher.publishEvent(new TimelineFanOutEvent(postId, before.getUserId()));
+        }
+
+        if (before != null) {
+            String oldVisibility = normalizeVisibility(before.getVisibility());
+            String newVisibility = post.getVisibility() != null ? normalizeVisibility(post.getVisibility()) : oldVisibility;
+            eventPublisher.publishEvent(new PostChangedEvent(postId, before.getUserId(), oldVisibility, newVisibility));
         }
 
         return getPostById(postId);
@@ -130,104 +165,346 @@ public class BlogPostServiceImpl implements BlogPostService {
     @Override
     @Transactional
     public void deletePost(Long postId) {
+        BlogPost before = blogPostMapper.findHeaderById(postId);
+        timelineService.retractPost(postId);
         blogMediaMapper.deleteByPostId(postId);
         blogPostMapper.removeTagsFromPost(postId);
         blogPostMapper.deleteById(postId);
+
+        if (before != null) {
+            eventPublisher.publishEvent(new PostChangedEvent(postId, before.getUserId(),
+                    normalizeVisibility(before.getVisibility()), null));
+        }
     }
 
     @Override
     public List<BlogPost> getVisiblePosts(Long currentUserId) {
-        // Get all posts and filter by visibility
-        List<BlogPost> allPosts = blogPostMapper.findAll();
-        return filterVisiblePosts(allPosts, currentUserId);
+        // Visibility is evaluated in SQL, only rows the viewer may see are loaded
+        return relationLoader.load(blogPostMapper.findVisible(null, currentUserId));
     }
 
     @Override
     public List<BlogPost> getVisiblePostsByUserId(Long userId, Long currentUserId) {
-        // Get posts by user and filter by visibility
-        List<BlogPost> userPosts = blogPostMapper.findPosts(userId, null, null);
-        return filterVisiblePosts(userPosts, currentUserId);
+        return relationLoader.load(blogPostMapper.findVisible(userId, currentUserId));
     }
 
     @Override
     public BlogPost getVisiblePostById(Long postId, Long currentUserId) {
-        BlogPost post = blogPostMapper.findById(postId);
-        if (post == null) {
-            return null;
+        return relationLoader.loadOne(blogPostMapper.findVisibleById(postId, currentUserId));
+    }
+
+    @Override
+    public ResourceVersion getVisiblePostVersion(Long postId, Long currentUserId) {
+        return blogPostMapper.findVisibleVersion(postId, currentUserId);
+    }
+
+    @Override
+    public CursorPage<BlogPost> getVisiblePostsPage(Long userId, Long currentUserId,
+                                                    LocalDateTime cursorTime, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        return feedCache.get(new FeedCache.Key(currentUserId, userId, FeedCache.View.FEED, cursorTime, cursorId, pageSize), () -> {
+            // 多取一条用于判断 hasMore
+            List<BlogPost> rows = blogPostMapper.findVisiblePageBefore(userId, currentUserId, cursorTime, cursorId, pageSize + 1);
+            return toCursorPage(rows, pageSize);
+        });
+    }
+
+    @Override
+    public CursorPage<PostSummary> getVisibleSummaryPage(Long userId, Long currentUserId,
+                                                         LocalDateTime cursorTime, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // 匿名首页走这里：有界的卡片页，按 (观看者, 作者, 游标) 缓存
+        return feedCache.get(new FeedCache.Key(currentUserId, userId, FeedCache.View.FEED_SUMMARY, cursorTime, cursorId, pageSize), () -> {
+            List<PostSummary> rows = blogPostMapper.findVisibleSummaryPageBefore(userId, currentUserId,
+                    cursorTime, cursorId, pageSize + 1, excerptLength);
+            return toSummaryPage(rows, pageSize);
+        });
+    }
+
+    @Override
+    public List<PostSummary> getPostSummaries(Long userId, Long categoryId, Integer status) {
+        return relationLoader.loadTagNames(blogPostMapper.findSummaries(userId, categoryId, status, excerptLength));
+    }
+
+    @Override
+    public List<PostSummary> getVisiblePostSummaries(Long userId, Long currentUserId) {
+        return relationLoader.loadTagNames(blogPostMapper.findVisibleSummaries(userId, currentUserId, excerptLength));
+    }
+
+    @Override
+    public List<PostSummary> getDraftSummariesByUserId(Long userId) {
+        return getPostSummaries(userId, null, 0);
+    }
+
+    @Override
+    public List<PostSummary> searchPosts(String query, Long currentUserId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Long> rankedIds = postSearchIndex.search(query, currentUserId,
+                currentUserId != null ? viewerContext.getFriendIds(currentUserId) : null, pageSize);
+        if (rankedIds.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        if (isVisibleToUser(post, currentUserId)) {
-            return post;
+        // 索引只负责召回和排序，可见性和是否存在由 SQL 再确认一次
+        Map<Long, PostSummary> byId = new HashMap<>();
+        for (PostSummary summary : blogPostMapper.findVisibleSummariesByIds(rankedIds, currentUserId, excerptLength)) {
+            byId.put(summary.getPostId(), summary);
         }
+        List<PostSummary> results = new ArrayList<>(byId.size());
+        for (Long postId : rankedIds) {
+            PostSummary summary = byId.get(postId);
+            if (summary != null) {
+                results.add(summary);
+            }
+        }
+        return relationLoader.loadTagNames(results);
+    }
+
+    @Override
+    public CursorPage<PostSummary> getPostsByTags(List<Long> all, List<Long> any, List<Long> none,
+                                                  Long currentUserId, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        RoaringBitmap matched = tagBitmapIndex.match(all, any, none, currentUserId,
+                currentUserId != null ? viewerContext.getFriendIds(currentUserId) : null);
+
+        // 多取一条用于判断 hasMore
+        List<Long> ids = tagBitmapIndex.page(matched, cursorId, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new CursorPage<>(new ArrayList<>(), null, null, false);
+        }
+
+        // 位图决定候选和顺序，SQL 再校验一次状态和可见性；游标按位图推进，过期条目不会卡住翻页
+        Map<Long, PostSummary> byId = new HashMap<>();
+        for (PostSummary summary : blogPostMapper.findVisibleSummariesByIds(ids, currentUserId, excerptLength)) {
+            byId.put(summary.getPostId(), summary);
+        }
+        List<PostSummary> items = new ArrayList<>(ids.size());
+        for (Long postId : ids) {
+            PostSummary summary = byId.get(postId);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        relationLoader.loadTagNames(items);
+        return new CursorPage<>(items, null, ids.get(ids.size() - 1), hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllPostSummaries(Consumer<PostSummary> consumer) {
+        // Cursor 只能在事务（同一个连接）存活期间读取
+        try (Cursor<PostSummary> cursor = blogPostMapper.streamSummaries(excerptLength)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        return null;
+    @Override
+    public CursorPage<BlogPost> getTimelinePage(Long currentUserId, LocalDateTime cursorTime, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return feedCache.get(new FeedCache.Key(currentUserId, null, FeedCache.View.TIMELINE, cursorTime, cursorId, pageSize), () -> {
+            List<BlogPost> rows = timelineService.getTimelinePage(currentUserId, cursorTime, cursorId, pageSize + 1);
+            return toCursorPage(rows, pageSize);
+        });
     }
 
-    private List<BlogPost> filterVisiblePosts(List<BlogPost> posts, Long currentUserId) {
-        return posts.stream()
-                .filter(post -> isVisibleToUser(post, currentUserId))
-                .collect(java.util.stream.Collectors.toList());
+    @Override
+    public CursorPage<PostSummary> getTimelineSummaryPage(Long currentUserId, LocalDateTime cursorTime, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 登录用户的首页：时间线卡片页，和全站列表共用缓存及失效规则
+        return feedCache.get(new FeedCache.Key(currentUserId, null, FeedCache.View.TIMELINE_SUMMARY, cursorTime, cursorId, pageSize), () -> {
+            List<PostSummary> rows = timelineService.getTimelineSummaryPage(currentUserId, cursorTime, cursorId,
+                    pageSize + 1, excerptLength);
+            return toSummaryPage(rows, pageSize);
+        });
     }
 
-    private boolean isVisibleToUser(BlogPost post, Long currentUserId) {
-        String visibility = post.getVisibility();
+    private CursorPage<PostSummary> toSummaryPage(List<PostSummary> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<PostSummary> items = relationLoader.loadTagNames(hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+        if (items.isEmpty()) {
+            return new CursorPage<>(items, null, null, false);
+        }
+        PostSummary last = items.get(items.size() - 1);
+        return new CursorPage<>(items, last.getCreateTime(), last.getPostId(), hasMore);
+    }
 
-        // Handle null or empty visibility - treat as PUBLIC for backwards compatibility
-        if (visibility == null || visibility.isEmpty()) {
-            visibility = "PUBLIC";
+    private CursorPage<BlogPost> toCursorPage(List<BlogPost> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<BlogPost> items = relationLoader.load(hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+        if (items.isEmpty()) {
+            return new CursorPage<>(items, null, null, false);
         }
+        BlogPost last = items.get(items.size() - 1);
+        return new CursorPage<>(items, last.getCreateTime(), last.getPostId(), hasMore);
+    }
 
-        // Public posts are visible to everyone
-        if ("PUBLIC".equalsIgnoreCase(visibility)) {
-            return true;
+    /**
+     * 批量关联标签：已有 tagId 一次查询校验，按名称的标签批量获取或创建，最后一条多行 INSERT 写入关联
+     */
+    private void attachTags(Long postId, List<Tag> tagList) {
+        Set<Long> managedTagIds = resolveTagIds(tagList);
+        if (!managedTagIds.isEmpty()) {
+            blogPostMapper.addTagsToPost(postId, managedTagIds);
         }
+    }
 
-        // Private posts are only visible to the author
-        if ("PRIVATE".equalsIgnoreCase(visibility)) {
-            return currentUserId != null && post.getUserId().equals(currentUserId);
+    /**
+     * 按 mediaId 对比已有媒体：布局变化的一条 CASE UPDATE，新增的一条多行 INSERT，移除的一条 DELETE ... IN
+     */
+    private void syncMedia(Long postId, List<BlogMedia> mediaList) {
+        syncMedia(postId, blogMediaMapper.findByPostId(postId), mediaList);
+    }
+
+    private void syncMedia(Long postId, List<BlogMedia> stored, List<BlogMedia> mediaList) {
+        MediaDiff diff = MediaDiff.of(postId, stored, mediaList);
+        if (!diff.getDeletedIds().isEmpty()) {
+            blogMediaMapper.deleteByIds(postId, diff.getDeletedIds());
+        }
+        if (!diff.getUpdates().isEmpty()) {
+            blogMediaMapper.updateLayoutBatch(postId, diff.getUpdates());
+        }
+        if (!diff.getInserts().isEmpty()) {
+            insertMedia(diff.getInserts());
         }
+    }
 
-        // Friends-only posts are visible to author and friends
-        if ("FRIENDS".equalsIgnoreCase(visibility)) {
-            if (currentUserId == null) {
-                return false;
-            }
-            // Author can always see their own posts
-            if (post.getUserId().equals(currentUserId)) {
-                return true;
+    /**
+     * 把补丁里的媒体修改叠加到已存储的行上，再交给 MediaDiff 计算真正需要写的行
+     */
+    private static List<BlogMedia> patchMedia(List<BlogMedia> stored, DraftPatch patch) {
+        Map<Long, BlogMedia> changes = new HashMap<>();
+        List<BlogMedia> added = new ArrayList<>();
+        if (patch.getMedia() != null) {
+            for (BlogMedia media : patch.getMedia()) {
+                if (media.getMediaId() != null) {
+                    changes.put(media.getMediaId(), media);
+                } else {
+                    added.add(media);
+                }
             }
-            return friendshipService.areFriends(post.getUserId(), currentUserId);
         }
+        Set<Long> removed = patch.getRemovedMediaIds() != null
+                ? new HashSet<>(patch.getRemovedMediaIds()) : Set.of();
 
-        // Special PARTNER visibility for users 1 and 100
-        if ("PARTNER".equalsIgnoreCase(visibility)) {
-            if (currentUserId == null) {
-                return false;
+        List<BlogMedia> result = new ArrayList<>();
+        for (BlogMedia row : stored) {
+            if (removed.contains(row.getMediaId())) {
+                continue;
             }
-            // Author can always see their own posts
-            if (post.getUserId().equals(currentUserId)) {
-                return true;
+            BlogMedia merged = new BlogMedia();
+            BeanUtils.copyProperties(row, merged);
+            BlogMedia change = changes.get(row.getMediaId());
+            if (change != null) {
+                // 只覆盖补丁里给出的字段
+                DraftPatches.copyNonNull(change, merged);
             }
-            // Only users 1 and 100 can see each other's PARTNER posts
-            Long authorId = post.getUserId();
-            if ((authorId == 1L && currentUserId == 100L) ||
-                (authorId == 100L && currentUserId == 1L)) {
-                return true;
+            result.add(merged);
+        }
+        result.addAll(added);
+        return result;
+    }
+
+    /**
+     * 每 MEDIA_BATCH_SIZE 行一条 INSERT，避免超大拼贴超过 max_allowed_packet
+     */
+    private void insertMedia(List<BlogMedia> mediaList) {
+        for (int from = 0; from < mediaList.size(); from += MEDIA_BATCH_SIZE) {
+            blogMediaMapper.insertBatch(mediaList.subList(from, Math.min(from + MEDIA_BATCH_SIZE, mediaList.size())));
+        }
+    }
+
+    private void syncTags(Long postId, List<Tag> tagList) {
+        Set<Long> wanted = resolveTagIds(tagList);
+        Set<Long> current = new LinkedHashSet<>(blogPostMapper.findTagIdsByPostId(postId));
+
+        Set<Long> removed = new LinkedHashSet<>(current);
+        removed.removeAll(wanted);
+        Set<Long> added = new LinkedHashSet<>(wanted);
+        added.removeAll(current);
+
+        if (!removed.isEmpty()) {
+            blogPostMapper.removeTagsByIds(postId, removed);
+        }
+        if (!added.isEmpty()) {
+            blogPostMapper.addTagsToPost(postId, added);
+        }
+    }
+
+    private Set<Long> resolveTagIds(List<Tag> tagList) {
+        List<Long> tagIds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tagList) {
+            if (tag.getTagId() != null && tag.getTagId() > 0) {
+                tagIds.add(tag.getTagId());
+            } else if (tag.getName() != null && !tag.getName().trim().isEmpty()) {
+                names.add(tag.getName().trim());
             }
-            return false;
+            // Skip invalid tag
         }
 
-        // Default to not visible for unknown visibility values
-        return false;
+        Set<Long> managedTagIds = new LinkedHashSet<>();
+        for (Tag tag : tagService.getTagsByIds(tagIds)) {
+            managedTagIds.add(tag.getTagId());
+        }
+        for (Tag tag : tagService.resolveOrCreate(names)) {
+            managedTagIds.add(tag.getTagId());
+        }
+        return managedTagIds;
+    }
+
+    private static String normalizeVisibility(String visibility) {
+        return visibility == null || visibility.isEmpty() ? "PUBLIC" : visibility.toUpperCase();
     }
 
     @Override
     public List<BlogPost> getDraftsByUserId(Long userId) {
-        return blogPostMapper.findDraftsByUserId(userId);
+        return relationLoader.load(blogPostMapper.findDraftsByUserId(userId));
     }
 
     @Override
     public BlogPost getLatestDraftByUserId(Long userId) {
-        return blogPostMapper.findLatestDraftByUserId(userId);
+        return relationLoader.loadOne(blogPostMapper.findLatestDraftByUserId(userId));
+    }
+
+    @Override
+    @Transactional
+    public boolean applyDraftPatch(Long postId, DraftPatch patch) {
+        BlogPost before = blogPostMapper.findHeaderById(postId);
+        // 已发布的日志走 updatePost，迟到的自动保存不能覆盖它
+        if (before == null || before.getStatus() == null || before.getStatus() != 0) {
+            return false;
+        }
+
+        BlogPost header = new BlogPost();
+        header.setPostId(postId);
+        header.setCategoryId(patch.getCategoryId());
+        header.setTitle(patch.getTitle());
+        header.setContent(patch.getContent());
+        header.setWeather(patch.getWeather());
+        header.setMood(patch.getMood());
+        header.setLocation(patch.getLocation());
+        header.setVisibility(patch.getVisibility());
+        blogPostMapper.update(header);
+
+        if (patch.getMedia() != null || patch.getRemovedMediaIds() != null) {
+            List<BlogMedia> stored = blogMediaMapper.findByPostId(postId);
+            syncMedia(postId, stored, patchMedia(stored, patch));
+        }
+        if (patch.getTagList() != null) {
+            syncTags(postId, patch.getTagList());
+        }
+
+        String oldVisibility = normalizeVisibility(before.getVisibility());
+        String newVisibility = patch.getVisibility() != null ? normalizeVisibility(patch.getVisibility()) : oldVisibility;
+        eventPublisher.publishEvent(new PostChangedEvent(postId, before.getUserId(), oldVisibility, newVisibility));
+        return true;
     }
 }
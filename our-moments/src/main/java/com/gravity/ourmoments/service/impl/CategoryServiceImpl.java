@@ -1,5 +1,6 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.cache.DictionaryCache;
 import com.gravity.ourmoments.entity.Category;
 import com.gravity.ourmoments.mapper.CategoryMapper;
 import com.gravity.ourmoments.service.CategoryService;
@@ -14,19 +15,23 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
 
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
     @Override
     public List<Category> getAllCategories() {
-        return categoryMapper.findAll();
+        return dictionaryCache.getAllCategories();
     }
 
     @Override
     public Category getCategoryById(Long categoryId) {
-        return categoryMapper.findById(categoryId);
+        return dictionaryCache.getCategory(categoryId);
     }
 
     @Override
     public Category createCategory(Category category) {
         categoryMapper.insert(category);
+        dictionaryCache.refreshCategories();
         return category;
     }
 
@@ -34,11 +39,13 @@ public class CategoryServiceImpl implements CategoryService {
     public Category updateCategory(Long categoryId, Category category) {
         category.setCategoryId(categoryId);
         categoryMapper.update(category);
+        dictionaryCache.refreshCategories();
         return categoryMapper.findById(categoryId);
     }
 
     @Override
     public void deleteCategory(Long categoryId) {
         categoryMapper.deleteById(categoryId);
+        dictionaryCache.refreshCategories();
     }
 }
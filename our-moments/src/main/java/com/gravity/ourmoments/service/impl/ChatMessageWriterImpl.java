@@ -0,0 +1,182 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.gravity.ourmoments.entity.Message;
+import com.gravity.ourmoments.service.ChatMessageWriter;
+import com.gravity.ourmoments.service.MessageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 私信的组提交（group commit）：入站线程只把消息放进队列，单个写线程把等待中的消息
+ * 合并成一个事务、一条多行 INSERT 写入，提交后再逐条完成 future。
+ * <p>
+ * 写线程忙时新消息自然攒成下一批；空闲时最多再等 max-delay-ms 凑批。
+ * 整批失败时逐条重试，一条坏消息不会拖垮同批的其他消息。队列满时入站线程阻塞，形成背压。
+ */
+@Slf4j
+@Service
+public class ChatMessageWriterImpl implements ChatMessageWriter {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Value("${app.chat.group-commit.max-batch:200}")
+    private int maxBatch;
+
+    @Value("${app.chat.group-commit.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    @Value("${app.chat.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.chat.group-commit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "chat-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            // 写线程退出前会写完队列中剩余的消息
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写线程超时未退出或被中断时，队列里剩下的消息不会再写入，让发送方拿到失败回执
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(Pending::rejectShutdown);
+    }
+
+    @Override
+    public CompletableFuture<Message> submit(Long senderId, Long receiverId, String content) {
+        Message message = new Message();
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setContent(content);
+        Pending pending = new Pending(message);
+        if (!running) {
+            pending.rejectShutdown();
+            return pending.future;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // 检查 running 与入队之间可能已经关闭：写线程和 shutdown 都没取走时由这里失败，future 不会永远挂起
+        if (!running && queue.remove(pending)) {
+            pending.rejectShutdown();
+        }
+        return pending.future;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Chat group commit failed unexpectedly", e);
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 取走已在排队的消息；不满一批时在 max-delay-ms 内继续等待
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatch - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Message> messages = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            messages.add(pending.message);
+        }
+        try {
+            messageService.saveMessages(messages);
+            batch.forEach(pending -> pending.future.complete(pending.message));
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("Failed to save chat message", e);
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            log.warn("Chat group commit of {} messages failed, retrying one by one", batch.size(), e);
+        }
+        for (Pending pending : batch) {
+            try {
+                messageService.saveMessages(Collections.singletonList(pending.message));
+                pending.future.complete(pending.message);
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Pending {
+        final Message message;
+        final CompletableFuture<Message> future = new CompletableFuture<>();
+
+        Pending(Message message) {
+            this.message = message;
+        }
+
+        void rejectShutdown() {
+            future.completeExceptionally(new IllegalStateException("Chat message writer is shut down"));
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.BlogPost;
 import com.gravity.ourmoments.entity.Comment;
 import com.gravity.ourmoments.mapper.BlogPostMapper;
 import com.gravity.ourmoments.mapper.CommentMapper;
 import com.gravity.ourmoments.service.CommentService;
 import com.gravity.ourmoments.service.NotificationService;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class CommentServiceImpl implements CommentService {
@@ -32,14 +38,21 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.findByPostId(postId);
     }
 
+    @Override
+    public ResourceVersion getCommentsVersion(Long postId) {
+        return commentMapper.findVersionByPostId(postId);
+    }
+
     @Override
     public List<Comment> getCommentsByPostIdAndPosition(Long postId, Integer position) {
         return commentMapper.findByPostIdAndPosition(postId, position);
     }
 
     @Override
+    @Transactional
     public Comment createComment(Comment comment) {
         commentMapper.insert(comment);
+        commentMapper.bumpCommentVersion(comment.getPostId());
 
         // 发送评论通知
         BlogPost post = blogPostMapper.findById(comment.getPostId());
@@ -57,24 +70,48 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional
     public Comment updateComment(Long commentId, Comment comment) {
         comment.setCommentId(commentId);
         commentMapper.update(comment);
-        return commentMapper.findById(commentId);
+        Comment updated = commentMapper.findById(commentId);
+        if (updated != null) {
+            commentMapper.bumpCommentVersion(updated.getPostId());
+        }
+        return updated;
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long commentId) {
+        Comment existing = commentMapper.findById(commentId);
+        if (existing == null) {
+            return;
+        }
         commentMapper.deleteById(commentId);
+        commentMapper.bumpCommentVersion(existing.getPostId());
     }
 
     @Override
+    @Transactional
     public void deleteCommentsByPostId(Long postId) {
         commentMapper.deleteByPostId(postId);
+        commentMapper.bumpCommentVersion(postId);
     }
 
     @Override
     public List<Comment> getAllComments() {
         return commentMapper.findAll();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllComments(Consumer<Comment> consumer) {
+        // Cursor 只能在事务（同一个连接）存活期间读取
+        try (Cursor<Comment> cursor = commentMapper.streamAll()) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gravity.ourmoments.dto.DraftPatch;
+import com.gravity.ourmoments.entity.BlogPost;
+import com.gravity.ourmoments.service.BlogPostService;
+import com.gravity.ourmoments.service.DraftAutosaveService;
+import com.gravity.ourmoments.util.DraftPatches;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 草稿自动保存的写后缓冲（write-behind）：补丁先 fsync 到本地预写日志并合并进内存，
+ * 每隔 flush-interval 把每个草稿合并后的修改一次性写入 MySQL。
+ * <p>
+ * 编辑器每几秒保存一次，而每个草稿每个周期最多一次数据库事务。
+ * 新增/删除媒体不可重放，直接落库；缓冲只是单实例内存，多实例部署时需要按草稿粘滞路由。
+ */
+@Slf4j
+@Service
+public class DraftAutosaveServiceImpl implements DraftAutosaveService {
+
+    @Autowired
+    private BlogPostService blogPostService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.draft-autosave.wal-path:data/draft-autosave.wal}")
+    private String walPath;
+
+    // 受 this 保护：pending 与预写日志必须同序修改
+    private final Map<Long, DraftPatch> pending = new LinkedHashMap<>();
+    private DraftWriteAheadLog wal;
+
+    // 草稿 id → 作者 id，避免每次自动保存都查库校验归属
+    private final Map<Long, Long> owners = new ConcurrentHashMap<>();
+
+    // 同一时间只有一个刷盘过程，保证同一草稿的补丁按顺序落库
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    public void start() {
+        wal = new DraftWriteAheadLog(Paths.get(walPath), objectMapper);
+        try {
+            synchronized (this) {
+                pending.putAll(wal.recover(DraftPatches::merge));
+            }
+            if (!pending.isEmpty()) {
+                log.info("Recovered {} unsaved drafts from {}", pending.size(), walPath);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to replay draft autosave log {}", walPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAllQuietly();
+        try {
+            synchronized (this) {
+                wal.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close draft autosave log", e);
+        }
+    }
+
+    @Override
+    public Result autosave(Long draftId, Long userId, DraftPatch patch) {
+        Result access = checkOwner(draftId, userId);
+        if (access != null) {
+            return access;
+        }
+
+        if (DraftPatches.isStructural(patch)) {
+            return saveNow(draftId, patch);
+        }
+
+        synchronized (this) {
+            try {
+                wal.append(draftId, patch);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write draft autosave log", e);
+            }
+            pending.merge(draftId, patch, DraftPatches::merge);
+        }
+        return Result.BUFFERED;
+    }
+
+    @Override
+    public void flush(Long draftId) {
+        flushLock.lock();
+        try {
+            DraftPatch patch;
+            synchronized (this) {
+                patch = pending.remove(draftId);
+            }
+            owners.remove(draftId);
+            if (patch != null) {
+                apply(draftId, patch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void discard(Long draftId) {
+        flushLock.lock();
+        try {
+            synchronized (this) {
+                if (pending.remove(draftId) != null) {
+                    appendFlushed(draftId);
+                }
+            }
+            owners.remove(draftId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        flushLock.lock();
+        try {
+            Map<Long, DraftPatch> drained;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                try {
+                    wal.rotate();
+                } catch (IOException e) {
+                    log.warn("Failed to rotate draft autosave log, retrying next cycle", e);
+                    return;
+                }
+                drained = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+
+            Map<Long, DraftPatch> failed = new LinkedHashMap<>();
+            for (Map.Entry<Long, DraftPatch> entry : drained.entrySet()) {
+                try {
+                    if (!blogPostService.applyDraftPatch(entry.getKey(), entry.getValue())) {
+                        owners.remove(entry.getKey());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to save draft {}, keeping it buffered", entry.getKey(), e);
+                    failed.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            synchronized (this) {
+                try {
+                    // 失败的补丁放回缓冲（位于期间新到的补丁之前），并以合并后的结果重新记入日志
+                    for (Map.Entry<Long, DraftPatch> entry : failed.entrySet()) {
+                        DraftPatch newer = pending.get(entry.getKey());
+                        DraftPatch merged = newer != null ? DraftPatches.merge(entry.getValue(), newer) : entry.getValue();
+                        pending.put(entry.getKey(), merged);
+                        wal.append(entry.getKey(), merged);
+                    }
+                    wal.dropRotated();
+                } catch (IOException e) {
+                    // 保留 .flushing 文件，重启时仍会重放
+                    log.warn("Failed to update draft autosave log", e);
+                }
+            }
+            log.debug("Saved {} buffered drafts", drained.size() - failed.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 周期刷盘，在共享的调度线程池上运行
+     */
+    @Scheduled(fixedDelayString = "${app.draft-autosave.flush-interval-ms:15000}",
+            initialDelayString = "${app.draft-autosave.flush-interval-ms:15000}")
+    public void flushAllQuietly() {
+        try {
+            flushAll();
+        } catch (RuntimeException e) {
+            log.warn("Draft autosave flush failed", e);
+        }
+    }
+
+    private Result checkOwner(Long draftId, Long userId) {
+        Long owner = owners.get(draftId);
+        if (owner == null) {
+            BlogPost header = blogPostService.getPostHeader(draftId);
+            if (header == null) {
+                return Result.NOT_FOUND;
+            }
+            if (header.getStatus() == null || header.getStatus() != 0) {
+                return Result.NOT_DRAFT;
+            }
+            owner = header.getUserId();
+            owners.put(draftId, owner);
+        }
+        return owner.equals(userId) ? null : Result.FORBIDDEN;
+    }
+
+    /**
+     * 结构性修改连同已缓冲的补丁一起立即写入，然后在日志里标记该草稿已落库
+     */
+    private Result saveNow(Long draftId, DraftPatch patch) {
+        flushLock.lock();
+        try {
+            DraftPatch buffered;
+            synchronized (this) {
+                buffered = pending.remove(draftId);
+            }
+            DraftPatch merged = buffered != null ? DraftPatches.merge(buffered, patch) : patch;
+            boolean saved;
+            try {
+                saved = blogPostService.applyDraftPatch(draftId, merged);
+            } catch (RuntimeException e) {
+                if (buffered != null) {
+                    synchronized (this) {
+                        pending.merge(draftId, buffered, (newer, older) -> DraftPatches.merge(older, newer));
+                    }
+                }
+                throw e;
+            }
+            synchronized (this) {
+                appendFlushed(draftId);
+            }
+            if (!saved) {
+                owners.remove(draftId);
+                return Result.NOT_DRAFT;
+            }
+            return Result.SAVED;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void apply(Long draftId, DraftPatch patch) {
+        try {
+            blogPostService.applyDraftPatch(draftId, patch);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending.merge(draftId, patch, (newer, older) -> DraftPatches.merge(older, newer));
+            }
+            throw e;
+        }
+        synchronized (this) {
+            appendFlushed(draftId);
+        }
+    }
+
+    private void appendFlushed(Long draftId) {
+        try {
+            wal.appendFlushed(draftId);
+        } catch (IOException e) {
+            // 最坏情况是重启后再重放一次已经落库的补丁
+            log.warn("Failed to mark draft {} as saved in autosave log", draftId, e);
+        }
+    }
+}
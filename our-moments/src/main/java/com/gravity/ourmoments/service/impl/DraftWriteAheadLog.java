@@ -0,0 +1,157 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gravity.ourmoments.dto.DraftPatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * 草稿自动保存的预写日志：每行一条 JSON，写入后立即 fsync。
+ * <p>
+ * 刷盘周期开始时把当前文件改名为 .flushing，数据库写完后删除；进程崩溃后两个文件按顺序重放。
+ * "flushed" 记录表示该草稿之前的补丁已经落库，重放时丢弃。非线程安全，由调用方加锁。
+ */
+@Slf4j
+class DraftWriteAheadLog implements Closeable {
+
+    private final Path path;
+    private final Path rotated;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+
+    DraftWriteAheadLog(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.rotated = path.resolveSibling(path.getFileName() + ".flushing");
+        this.objectMapper = objectMapper;
+    }
+
+    void append(Long draftId, DraftPatch patch) throws IOException {
+        write(new Entry(draftId, patch, false));
+    }
+
+    void appendFlushed(Long draftId) throws IOException {
+        write(new Entry(draftId, null, true));
+    }
+
+    /**
+     * Starts a flush cycle: later appends go to a fresh file until {@link #dropRotated()}.
+     */
+    void rotate() throws IOException {
+        close();
+        if (Files.exists(path)) {
+            Files.move(path, rotated, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    void dropRotated() throws IOException {
+        Files.deleteIfExists(rotated);
+    }
+
+    /**
+     * Replays both files and rewrites the log so it holds exactly the returned patches.
+     */
+    Map<Long, DraftPatch> recover(BinaryOperator<DraftPatch> merge) throws IOException {
+        Map<Long, DraftPatch> pending = new LinkedHashMap<>();
+        replay(rotated, pending, merge);
+        replay(path, pending, merge);
+
+        close();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        if (!pending.isEmpty()) {
+            try (FileChannel out = open(tmp)) {
+                for (Map.Entry<Long, DraftPatch> entry : pending.entrySet()) {
+                    out.write(encode(new Entry(entry.getKey(), entry.getValue(), false)));
+                }
+                out.force(false);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        Files.deleteIfExists(rotated);
+        return pending;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void replay(Path file, Map<Long, DraftPatch> pending, BinaryOperator<DraftPatch> merge) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (IOException e) {
+                    // 崩溃时写了一半的最后一行
+                    log.warn("Skipping unreadable draft autosave log entry in {}", file);
+                    continue;
+                }
+                if (entry.isFlushed()) {
+                    pending.remove(entry.getDraftId());
+                } else if (entry.getPatch() != null) {
+                    pending.merge(entry.getDraftId(), entry.getPatch(), merge);
+                }
+            }
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        if (channel == null) {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = open(path);
+        }
+        channel.write(encode(entry));
+        channel.force(false);
+    }
+
+    private ByteBuffer encode(Entry entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1);
+        buffer.put(json).put((byte) '\n').flip();
+        return buffer;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Entry {
+        private Long draftId;
+        private DraftPatch patch;
+        private boolean flushed;
+    }
+}
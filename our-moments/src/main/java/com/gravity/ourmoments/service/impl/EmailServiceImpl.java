@@ -6,6 +6,7 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -34,9 +35,20 @@ public class EmailServiceImpl implements EmailService {
     }
 
     /**
-     * 发送 HTML 邮件
+     * 发送 HTML 邮件，失败只记录日志
      */
     private void sendHtmlEmail(String to, String subject, String htmlContent, boolean isHtml) {
+        try {
+            deliverHtmlEmail(to, subject, htmlContent, isHtml);
+        } catch (MessagingException | MailException e) {
+            log.error("Failed to send email to: {}, error: {}", to, e.getMessage());
+        }
+    }
+
+    /**
+     * 同步发送 HTML 邮件，失败时抛出 MessagingException / MailException；未启用或未配置时视为无需发送
+     */
+    private void deliverHtmlEmail(String to, String subject, String htmlContent, boolean isHtml) throws MessagingException {
         if (!emailEnabled) {
             log.info("Email disabled. Would send to: {}, subject: {}", to, subject);
             return;
@@ -52,23 +64,34 @@ public class EmailServiceImpl implements EmailService {
             return;
         }
 
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, isHtml);
-            mailSender.send(mimeMessage);
-            log.info("Email sent successfully to: {}", to);
-        } catch (MessagingException e) {
-            log.error("Failed to send email to: {}, error: {}", to, e.getMessage());
-        }
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, isHtml);
+        mailSender.send(mimeMessage);
+        log.info("Email sent successfully to: {}", to);
     }
 
     @Override
     @Async
     public void sendNewPostNotification(String to, String authorName, String postTitle, Long postId) {
+        HtmlEmail email = buildNewPostEmail(to, authorName, postTitle, postId);
+        sendHtmlEmail(to, email.subject(), email.html(), true);
+    }
+
+    @Override
+    public void deliverNewPostNotification(String to, String authorName, String postTitle, Long postId)
+            throws MessagingException {
+        HtmlEmail email = buildNewPostEmail(to, authorName, postTitle, postId);
+        deliverHtmlEmail(to, email.subject(), email.html(), true);
+    }
+
+    private record HtmlEmail(String subject, String html) {
+    }
+
+    private HtmlEmail buildNewPostEmail(String to, String authorName, String postTitle, Long postId) {
         String subject = "";
         String htmlContent = "";
         String postUrl = baseUrl + "/post/" + postId;
@@ -108,7 +131,7 @@ public class EmailServiceImpl implements EmailService {
             );
         }
 
-        sendHtmlEmail(to, subject, htmlContent, true);
+        return new HtmlEmail(subject, htmlContent);
     }
 
     /**
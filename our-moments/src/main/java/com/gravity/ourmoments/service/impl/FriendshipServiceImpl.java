@@ -1,12 +1,21 @@
 package com.gravity.ourmoments.service.impl;
 
 import com.gravity.ourmoments.entity.Friendship;
+import com.gravity.ourmoments.event.FriendshipChangedEvent;
 import com.gravity.ourmoments.mapper.FriendshipMapper;
 import com.gravity.ourmoments.service.FriendshipService;
 import com.gravity.ourmoments.service.NotificationService;
+import com.gravity.ourmoments.service.TimelineService;
+import com.gravity.ourmoments.service.ViewerContext;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +27,15 @@ public class FriendshipServiceImpl implements FriendshipService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ViewerContext viewerContext;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Friendship getFriendshipById(Long friendshipId) {
         return friendshipMapper.findById(friendshipId);
@@ -42,6 +60,7 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public Friendship sendFriendRequest(Long userId, Long friendId) {
         // 检查是否已经存在好友关系
         Friendship existing = friendshipMapper.findByUserAndFriend(userId, friendId);
@@ -72,11 +91,14 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public Friendship acceptFriendRequest(Long friendshipId, Long userId) {
         Friendship friendship = friendshipMapper.findById(friendshipId);
         if (friendship != null && friendship.getFriendId().equals(userId) && "PENDING".equals(friendship.getStatus())) {
             friendship.setStatus("ACCEPTED");
             friendshipMapper.update(friendship);
+            invalidateFriendIds(friendship);
+            timelineService.onFriendshipAccepted(friendship.getUserId(), friendship.getFriendId());
 
             // 发送好友接受通知
             // 这里可以添加通知逻辑，通知请求发送方请求已被接受
@@ -98,14 +120,19 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional
     public void deleteFriendship(Long userId, Long friendId) {
         friendshipMapper.deleteByUserAndFriend(userId, friendId);
+        viewerContext.invalidate(userId);
+        viewerContext.invalidate(friendId);
+        timelineService.onFriendshipEnded(userId, friendId);
+        eventPublisher.publishEvent(new FriendshipChangedEvent(userId, friendId));
     }
 
     @Override
     public boolean areFriends(Long userId, Long friendId) {
-        Friendship friendship = friendshipMapper.findByUserAndFriend(userId, friendId);
-        return friendship != null && "ACCEPTED".equals(friendship.getStatus());
+        // 好友集合每个请求只查一次
+        return viewerContext.areFriends(userId, friendId);
     }
 
     @Override
@@ -114,24 +141,62 @@ public class FriendshipServiceImpl implements FriendshipService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamAllFriendships(Consumer<Friendship> consumer) {
+        // Cursor 只能在事务（同一个连接）存活期间读取
+        try (Cursor<Friendship> cursor = friendshipMapper.streamAll()) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional
     public Friendship createFriendship(Friendship friendship) {
         friendshipMapper.insert(friendship);
+        invalidateFriendIds(friendship);
+        if ("ACCEPTED".equals(friendship.getStatus())) {
+            timelineService.onFriendshipAccepted(friendship.getUserId(), friendship.getFriendId());
+        }
         return friendshipMapper.findById(friendship.getFriendshipId());
     }
 
     @Override
+    @Transactional
     public Friendship updateFriendshipStatus(Long friendshipId, String status) {
         Friendship friendship = friendshipMapper.findById(friendshipId);
         if (friendship != null) {
+            boolean wasAccepted = "ACCEPTED".equals(friendship.getStatus());
             friendship.setStatus(status);
             friendshipMapper.update(friendship);
+            invalidateFriendIds(friendship);
+            if (!wasAccepted && "ACCEPTED".equals(status)) {
+                timelineService.onFriendshipAccepted(friendship.getUserId(), friendship.getFriendId());
+            } else if (wasAccepted && !"ACCEPTED".equals(status)) {
+                timelineService.onFriendshipEnded(friendship.getUserId(), friendship.getFriendId());
+            }
             return friendshipMapper.findById(friendshipId);
         }
         return null;
     }
 
     @Override
+    @Transactional
     public void deleteFriendship(Long friendshipId) {
+        Friendship friendship = friendshipMapper.findById(friendshipId);
         friendshipMapper.deleteById(friendshipId);
+        if (friendship != null) {
+            invalidateFriendIds(friendship);
+            if ("ACCEPTED".equals(friendship.getStatus())) {
+                timelineService.onFriendshipEnded(friendship.getUserId(), friendship.getFriendId());
+            }
+        }
+    }
+
+    private void invalidateFriendIds(Friendship friendship) {
+        viewerContext.invalidate(friendship.getUserId());
+        viewerContext.invalidate(friendship.getFriendId());
+        eventPublisher.publishEvent(new FriendshipChangedEvent(friendship.getUserId(), friendship.getFriendId()));
     }
 }
\ No newline at end of file
@@ -1,40 +1,75 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.cache.UnreadCounters;
+import com.gravity.ourmoments.dto.ConversationSummary;
+import com.gravity.ourmoments.dto.CursorPage;
 import com.gravity.ourmoments.entity.Message;
+import com.gravity.ourmoments.mapper.ConversationMapper;
 import com.gravity.ourmoments.mapper.MessageMapper;
 import com.gravity.ourmoments.service.MessageService;
 import com.gravity.ourmoments.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MessageServiceImpl implements MessageService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_CONVERSATION_PAGE_SIZE = 50;
+
     @Autowired
     private MessageMapper messageMapper;
 
+    @Autowired
+    private ConversationMapper conversationMapper;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private UnreadCounters unreadCounters;
+
     @Override
+    @Transactional
     public Message sendMessage(Long senderId, Long receiverId, String content) {
         Message message = new Message();
         message.setSenderId(senderId);
         message.setReceiverId(receiverId);
         message.setContent(content);
-        message.setIsRead(false);
-        message.setCreateTime(LocalDateTime.now());
-        message.setUpdateTime(LocalDateTime.now());
+        return saveMessages(Collections.singletonList(message)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<Message> saveMessages(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return messages;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> unreadByReceiver = new HashMap<>();
+        for (Message message : messages) {
+            message.setIsRead(false);
+            message.setCreateTime(now);
+            message.setUpdateTime(now);
+            unreadByReceiver.merge(message.getReceiverId(), 1, Integer::sum);
+        }
 
-        messageMapper.insert(message);
+        messageMapper.insertBatch(messages);
+        conversationMapper.upsertForMessages(messages);
+        unreadByReceiver.forEach(unreadCounters::addMessages);
 
         // 发送私信通知
-        notificationService.sendMessageNotification(receiverId, senderId, message.getMessageId(), content);
+        notificationService.sendMessageNotifications(messages);
 
-        return message;
+        return messages;
     }
 
     @Override
@@ -42,19 +77,76 @@ public class MessageServiceImpl implements MessageService {
         return messageMapper.findChatHistory(userId, friendId);
     }
 
+    @Override
+    public CursorPage<Message> getChatHistoryPage(Long userId, Long friendId, Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        // 多取一条用于判断 hasMore
+        List<Message> rows = messageMapper.findChatHistoryBefore(userId, friendId, beforeId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Message> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (items.isEmpty()) {
+            return new CursorPage<>(items, null, null, false);
+        }
+        // 查询按新到旧取，返回时按时间正序，游标指向本页最早的一条
+        Collections.reverse(items);
+        Message oldest = items.get(0);
+        return new CursorPage<>(items, oldest.getCreateTime(), oldest.getMessageId(), hasMore);
+    }
+
+    @Override
+    public CursorPage<ConversationSummary> getConversations(Long userId, Long beforeMessageId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_CONVERSATION_PAGE_SIZE));
+        // 多取一条用于判断 hasMore
+        List<ConversationSummary> rows = conversationMapper.findPage(userId, beforeMessageId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ConversationSummary> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        if (items.isEmpty()) {
+            return new CursorPage<>(items, null, null, false);
+        }
+        ConversationSummary last = items.get(items.size() - 1);
+        return new CursorPage<>(items, last.getLastTime(), last.getLastMessageId(), hasMore);
+    }
+
     @Override
     public List<Message> getUnreadMessages(Long userId) {
         return messageMapper.findUnreadMessages(userId);
     }
 
     @Override
+    public int getUnreadCount(Long userId) {
+        return unreadCounters.getMessageCount(userId);
+    }
+
+    @Override
+    @Transactional
     public void markAsRead(Long userId, Long senderId) {
-        messageMapper.markAsRead(userId, senderId, LocalDateTime.now());
+        int updated = messageMapper.markAsRead(userId, senderId, LocalDateTime.now());
+        if (updated > 0) {
+            conversationMapper.decrementUnread(userId, senderId, updated);
+            unreadCounters.addMessages(userId, -updated);
+        }
     }
 
     @Override
+    @Transactional
     public void deleteMessage(Long messageId) {
+        Message message = messageMapper.selectById(messageId);
+        if (message == null) {
+            return;
+        }
         messageMapper.deleteById(messageId);
+        if (Boolean.FALSE.equals(message.getIsRead())) {
+            conversationMapper.decrementUnread(message.getReceiverId(), message.getSenderId(), 1);
+            unreadCounters.addMessages(message.getReceiverId(), -1);
+        }
+
+        // 删掉的若是会话最后一条，摘要改指向剩下的最新一条；会话已空则删除摘要
+        List<Message> latest = messageMapper.findChatHistoryBefore(message.getSenderId(), message.getReceiverId(), null, 1);
+        if (latest.isEmpty()) {
+            conversationMapper.deletePair(message.getSenderId(), message.getReceiverId());
+        } else {
+            conversationMapper.replaceLastMessage(message.getSenderId(), message.getReceiverId(), messageId, latest.get(0));
+        }
     }
 
     @Override
@@ -1,50 +1,82 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.cache.UnreadCounters;
+import com.gravity.ourmoments.dto.NewPostEmail;
 import com.gravity.ourmoments.entity.*;
 import com.gravity.ourmoments.mapper.*;
-import com.gravity.ourmoments.service.EmailService;
 import com.gravity.ourmoments.service.NotificationService;
+import com.gravity.ourmoments.service.OutboxService;
+import com.gravity.ourmoments.service.ViewerContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int NOTIFICATION_BATCH_SIZE = 500;
+
     @Autowired
     private NotificationMapper notificationMapper;
 
     @Autowired
     private UserMapper userMapper;
 
-    @Autowired
-    private FriendshipMapper friendshipMapper;
-
     @Autowired
     private BlogPostMapper blogPostMapper;
 
     @Autowired
-    private MessageMapper messageMapper;
+    private OutboxService outboxService;
 
     @Autowired
-    private EmailService emailService;
+    private ViewerContext viewerContext;
 
     @Autowired
-    private ApplicationEventPublisher eventPublisher;
+    private UnreadCounters unreadCounters;
 
     @Override
+    @Transactional
     public Notification createNotification(Notification notification) {
-        notification.setCreateTime(LocalDateTime.now());
-        if (notification.getIsRead() == null) {
-            notification.setIsRead(false);
+        return createNotifications(Collections.singletonList(notification)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
         }
-        notificationMapper.insert(notification);
-        // 发布事件到 WebSocket 监听器
-        eventPublisher.publishEvent(notification);
-        return notification;
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            notification.setCreateTime(now);
+            if (notification.getIsRead() == null) {
+                notification.setIsRead(false);
+            }
+        }
+        // 多行 INSERT 回填 notificationId，每 NOTIFICATION_BATCH_SIZE 行一条语句
+        for (int from = 0; from < notifications.size(); from += NOTIFICATION_BATCH_SIZE) {
+            notificationMapper.insertBatch(notifications.subList(from, Math.min(from + NOTIFICATION_BATCH_SIZE, notifications.size())));
+        }
+        // WebSocket 推送写入 outbox，事务提交后才会发出
+        outboxService.publishNotifications(notifications);
+
+        Map<Long, Integer> unreadByUser = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!notification.getIsRead()) {
+                unreadByUser.merge(notification.getUserId(), 1, Integer::sum);
+            }
+        }
+        unreadByUser.forEach(unreadCounters::addNotifications);
+        return notifications;
     }
 
     @Override
@@ -59,26 +91,46 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public int getUnreadCountByUserId(Long userId) {
-        return notificationMapper.countUnreadByUserId(userId);
+        return unreadCounters.getNotificationCount(userId);
     }
 
     @Override
+    @Transactional
     public Notification markAsRead(Long notificationId) {
-        notificationMapper.markAsRead(notificationId);
-        return notificationMapper.findById(notificationId);
+        Notification notification = notificationMapper.findById(notificationId);
+        if (notification == null) {
+            return null;
+        }
+        // 只有这次更新真正把未读改成已读时才减计数，重复点击不会多减
+        if (notificationMapper.markAsRead(notificationId) == 1) {
+            unreadCounters.addNotifications(notification.getUserId(), -1);
+        }
+        notification.setIsRead(true);
+        return notification;
     }
 
     @Override
+    @Transactional
     public void markAllAsRead(Long userId) {
         notificationMapper.markAllAsRead(userId);
+        unreadCounters.clearNotifications(userId);
     }
 
     @Override
+    @Transactional
     public void deleteNotification(Long notificationId) {
+        Notification notification = notificationMapper.findById(notificationId);
+        if (notification == null) {
+            return;
+        }
         notificationMapper.deleteById(notificationId);
+        if (Boolean.FALSE.equals(notification.getIsRead())) {
+            unreadCounters.addNotifications(notification.getUserId(), -1);
+        }
     }
 
     @Override
+    @Transactional
     public void sendCommentNotification(Long postAuthorId, Long commenterId, Long postId, Long commentId, String postTitle) {
         // 不要给自己发通知
         if (postAuthorId.equals(commenterId)) {
@@ -97,6 +149,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional
     public void sendFriendRequestNotification(Long recipientId, Long requesterId, Long friendshipId) {
         User requester = userMapper.findById(requesterId);
         String requesterName = requester != null ? requester.getNickname() : "用户";
@@ -110,6 +163,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional
     public void sendNewPostNotificationToFriends(Long authorId, Long postId, String postTitle) {
         User author = userMapper.findById(authorId);
         String authorName = author != null ? author.getNickname() : "用户";
@@ -133,36 +187,40 @@ public class NotificationServiceImpl implements NotificationService {
                 // 发送邮件通知给对方
                 User partner = userMapper.findById(partnerId);
                 if (partner != null && partner.getEmail() != null && !partner.getEmail().isEmpty()) {
-                    emailService.sendNewPostNotification(partner.getEmail(), authorName, postTitle, postId);
+                    outboxService.publishNewPostEmails(Collections.singletonList(
+                            new NewPostEmail(partner.getEmail(), authorName, postTitle, postId)));
                 }
 
                 return; // PARTNER帖子处理完毕，直接返回
             }
         }
 
-        // 普通情况：向所有好友发送通知
-        List<Friendship> friendships = friendshipMapper.findByUserIdAndStatus(authorId, "ACCEPTED");
-
-        for (Friendship friendship : friendships) {
-            // 获取好友的ID（可能是 userId 或 friendId）
-            Long friendUserId = friendship.getUserId().equals(authorId)
-                ? friendship.getFriendId()
-                : friendship.getUserId();
-
-            // 发送应用内通知
+        // 普通情况：向所有好友发送通知。一次批量创建，一次 IN 查询取全部好友的邮箱
+        long[] friendIds = viewerContext.getFriendIds(authorId).toArray();
+        if (friendIds.length == 0) {
+            return;
+        }
+        List<Notification> notifications = new ArrayList<>(friendIds.length);
+        List<Long> recipientIds = new ArrayList<>(friendIds.length);
+        for (long friendUserId : friendIds) {
             Notification notification = new Notification();
             notification.setUserId(friendUserId);
             notification.setType("NEW_POST");
             notification.setContent(authorName + " 发布了新日志 \"" + postTitle + "\"");
             notification.setRelatedId(postId);
-            createNotification(notification);
+            notifications.add(notification);
+            recipientIds.add(friendUserId);
+        }
+        createNotifications(notifications);
 
-            // 发送邮件通知
-            User friend = userMapper.findById(friendUserId);
-            if (friend != null && friend.getEmail() != null && !friend.getEmail().isEmpty()) {
-                emailService.sendNewPostNotification(friend.getEmail(), authorName, postTitle, postId);
+        // 邮件同样经由 outbox 在提交后发送
+        List<NewPostEmail> emails = new ArrayList<>();
+        for (User friend : userMapper.findByIds(recipientIds)) {
+            if (friend.getEmail() != null && !friend.getEmail().isEmpty()) {
+                emails.add(new NewPostEmail(friend.getEmail(), authorName, postTitle, postId));
             }
         }
+        outboxService.publishNewPostEmails(emails);
     }
 
     // 辅助方法：通过 postId 获取帖子
@@ -174,22 +232,37 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    public void sendMessageNotification(Long receiverId, Long senderId, Long messageId, String messageContent) {
-        User sender = userMapper.findById(senderId);
-        String senderName = sender != null ? sender.getNickname() : "用户";
+    @Transactional
+    public void sendMessageNotifications(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Set<Long> senderIds = new HashSet<>();
+        for (Message message : messages) {
+            senderIds.add(message.getSenderId());
+        }
+        Map<Long, String> senderNames = new HashMap<>();
+        for (User sender : userMapper.findByIds(senderIds)) {
+            senderNames.put(sender.getUserId(), sender.getNickname());
+        }
 
-        // 截断消息内容用于通知显示
-        String shortContent = messageContent.length() > 50
-            ? messageContent.substring(0, 50) + "..."
-            : messageContent;
+        List<Notification> notifications = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            String senderName = senderNames.getOrDefault(message.getSenderId(), "用户");
 
-        Notification notification = new Notification();
-        notification.setUserId(receiverId);
-        notification.setType("MESSAGE");
-        notification.setContent(senderName + " 给你发送了私信: \"" + shortContent + "\"");
-        Message msg=messageMapper.selectById(messageId);
-        Long msgSenderId=msg.getSenderId();
-        notification.setRelatedId(msgSenderId);
-        createNotification(notification);
+            // 截断消息内容用于通知显示
+            String messageContent = message.getContent();
+            String shortContent = messageContent.length() > 50
+                ? messageContent.substring(0, 50) + "..."
+                : messageContent;
+
+            Notification notification = new Notification();
+            notification.setUserId(message.getReceiverId());
+            notification.setType("MESSAGE");
+            notification.setContent(senderName + " 给你发送了私信: \"" + shortContent + "\"");
+            notification.setRelatedId(message.getSenderId()); // 跳转到与发送者的聊天
+            notifications.add(notification);
+        }
+        createNotifications(notifications);
     }
-}
\ No newline at end of file
+}
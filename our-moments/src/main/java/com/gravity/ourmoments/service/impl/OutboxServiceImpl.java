@@ -0,0 +1,261 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gravity.ourmoments.dto.NewPostEmail;
+import com.gravity.ourmoments.dto.OutboxStats;
+import com.gravity.ourmoments.entity.Notification;
+import com.gravity.ourmoments.entity.OutboxEvent;
+import com.gravity.ourmoments.listener.NotificationEventListener;
+import com.gravity.ourmoments.mapper.OutboxMapper;
+import com.gravity.ourmoments.service.EmailService;
+import com.gravity.ourmoments.service.OutboxService;
+import jakarta.mail.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 事务型 outbox：业务事务里只写 sys_outbox，提交后由 relay 在共享调度线程池上分批取出（同一时间只有一个 drain），
+ * 推送到 STOMP / 邮件，成功的行在同一事务里删除。一行 NOTIFICATION_PUSH 携带一批通知（JSON 数组），
+ * 一次扇出无论多少接收者都只写少量几行；NEW_POST_EMAIL 每行只有一封邮件。
+ * <p>
+ * 投递与删除之间崩溃、或一行里中途失败都会整行重投，因此是至少一次。通知带 notificationId，
+ * 客户端据此去重，重推无害；邮件发出去无法撤回也没有去重，所以每行一封，失败重试只会重发这一封，
+ * 但发送成功后、删除前崩溃仍可能让同一个人收到两次。
+ * 失败的行按指数退避重试，超过 max-attempts 后标记为 dead 保留排查。突发的扇出在 relay 里按批次平滑，
+ * 不占用请求线程。
+ */
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    static final String NOTIFICATION_PUSH = "NOTIFICATION_PUSH";
+    static final String NEW_POST_EMAIL = "NEW_POST_EMAIL";
+
+    private static final int STATUS_PENDING = 0;
+    private static final int STATUS_DEAD = 2;
+    private static final int PUSH_CHUNK = 100;
+    private static final int EMAIL_CHUNK = 1;
+
+    @Autowired
+    private OutboxMapper outboxMapper;
+
+    @Autowired
+    private NotificationEventListener notificationEventListener;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    // 只在持有 draining 时读写
+    private long consecutiveFailures;
+
+    @Override
+    public void publishNotifications(List<Notification> notifications) {
+        append(events(NOTIFICATION_PUSH, notifications, PUSH_CHUNK));
+    }
+
+    @Override
+    public void publishNewPostEmails(List<NewPostEmail> emails) {
+        append(events(NEW_POST_EMAIL, emails, EMAIL_CHUNK));
+    }
+
+    @Override
+    public OutboxStats getStats() {
+        OutboxStats stats = outboxMapper.findBacklog();
+        if (stats == null) {
+            stats = new OutboxStats();
+        }
+        stats.setDelivered(delivered.get());
+        stats.setRetried(retried.get());
+        return stats;
+    }
+
+    private void append(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < events.size(); from += batchSize) {
+            outboxMapper.insertBatch(events.subList(from, Math.min(from + batchSize, events.size())));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /**
+     * 提交后唤醒 relay；已有待执行的唤醒时合并为一次
+     */
+    private void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            try {
+                taskScheduler.execute(() -> {
+                    wakeUpPending.set(false);
+                    drain();
+                });
+            } catch (RuntimeException e) {
+                // 关闭过程中提交的事件留给下次启动的轮询
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * 定时轮询负责重试和崩溃后遗留的行；正常情况由提交后的 wakeUp 立即触发。
+     * 轮询和唤醒可能落在调度池的不同线程上：已有 drain 在跑时只留下请求，由它结束前再扫一轮
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:2000}",
+            initialDelayString = "${app.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        drainRequested.set(true);
+        while (drainRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                if (drainRequested.getAndSet(false)) {
+                    drainOnce();
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drainOnce() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            Integer claimed;
+            do {
+                claimed = transaction.execute(status -> relayBatch());
+            } while (claimed != null && claimed >= batchSize);
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            // 数据库不可用时每分钟左右记一次日志
+            if (consecutiveFailures++ % Math.max(1, 60_000 / pollIntervalMs) == 0) {
+                log.warn("Outbox relay failed, will retry", e);
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxMapper.claimBatch(batchSize);
+        List<Long> done = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                deliver(event);
+                done.add(event.getOutboxId());
+            } catch (Exception e) {
+                int attempts = event.getAttempts() + 1;
+                boolean dead = attempts >= maxAttempts;
+                long delay = Math.min(maxBackoffSeconds, 1L << Math.min(attempts, 20));
+                outboxMapper.markFailed(event.getOutboxId(), dead ? STATUS_DEAD : STATUS_PENDING, delay,
+                        truncate(e.toString()));
+                retried.incrementAndGet();
+                log.warn("Outbox event {} ({}) failed on attempt {}{}", event.getOutboxId(), event.getEventType(),
+                        attempts, dead ? ", giving up" : "");
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxMapper.deleteByIds(done);
+            delivered.addAndGet(done.size());
+        }
+        return batch.size();
+    }
+
+    private void deliver(OutboxEvent event) throws JsonProcessingException, MessagingException {
+        switch (event.getEventType()) {
+            case NOTIFICATION_PUSH -> {
+                for (Notification notification : readPayload(event, Notification.class)) {
+                    notificationEventListener.sendNotificationToUser(notification.getUserId(), notification);
+                }
+            }
+            case NEW_POST_EMAIL -> {
+                for (NewPostEmail email : readPayload(event, NewPostEmail.class)) {
+                    // 必须同步发送：异步方法排队即返回，SMTP 失败时这一行已被删除，重试和死信都不会发生
+                    emailService.deliverNewPostNotification(email.getTo(), email.getAuthorName(), email.getPostTitle(),
+                            email.getPostId());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown outbox event type " + event.getEventType());
+        }
+    }
+
+    /**
+     * 负载是 JSON 数组；兼容早先每行一个对象的格式
+     */
+    private <T> List<T> readPayload(OutboxEvent event, Class<T> type) throws JsonProcessingException {
+        String payload = event.getPayload();
+        if (payload.startsWith("[")) {
+            return objectMapper.readValue(payload, objectMapper.getTypeFactory().constructCollectionType(List.class, type));
+        }
+        return Collections.singletonList(objectMapper.readValue(payload, type));
+    }
+
+    /**
+     * 每 chunk 个对象合成一行 outbox：推送扇出给 N 个人只写 N / PUSH_CHUNK 行，且不超过 TEXT 列长度；
+     * 邮件不可去重，一行一封
+     */
+    private List<OutboxEvent> events(String type, List<?> payloads, int chunk) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int from = 0; from < payloads.size(); from += chunk) {
+            OutboxEvent event = new OutboxEvent();
+            event.setEventType(type);
+            try {
+                event.setPayload(objectMapper.writeValueAsString(
+                        payloads.subList(from, Math.min(from + chunk, payloads.size()))));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Cannot serialize outbox payload", e);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
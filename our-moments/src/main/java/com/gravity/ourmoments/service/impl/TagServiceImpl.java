@@ -1,12 +1,17 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.cache.DictionaryCache;
+import com.gravity.ourmoments.dto.TagFacet;
 import com.gravity.ourmoments.entity.Tag;
 import com.gravity.ourmoments.mapper.TagMapper;
+import com.gravity.ourmoments.search.TagBitmapIndex;
 import com.gravity.ourmoments.service.TagService;
+import com.gravity.ourmoments.service.ViewerContext;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 public class TagServiceImpl implements TagService {
@@ -14,44 +19,148 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private TagMapper tagMapper;
 
+    @Autowired
+    private DictionaryCache dictionaryCache;
+
+    @Autowired
+    private TagBitmapIndex tagBitmapIndex;
+
+    @Autowired
+    private ViewerContext viewerContext;
+
     @Override
     public List<Tag> getAllTags() {
-        return tagMapper.findAll();
+        return dictionaryCache.getAllTags();
     }
 
     @Override
     public Tag getTagById(Long tagId) {
-        return tagMapper.findById(tagId);
+        return dictionaryCache.getTag(tagId);
     }
 
     @Override
     public Tag getTagByName(String name) {
-        return tagMapper.findByName(name);
+        Tag tag = dictionaryCache.getTagByName(name);
+        if (tag != null) {
+            return tag;
+        }
+        tag = tagMapper.findByName(name);
+        if (tag != null) {
+            dictionaryCache.putTags(Collections.singletonList(tag));
+        }
+        return tag;
     }
 
     @Override
     public Tag getOrCreateTag(String name) {
-        // 先查找是否已存在
-        Tag existingTag = tagMapper.findByName(name);
-        if (existingTag != null) {
-            return existingTag;
+        List<Tag> tags = resolveOrCreate(Collections.singletonList(name));
+        return tags.isEmpty() ? null : tags.get(0);
+    }
+
+    @Override
+    public List<Tag> getTagsByIds(Collection<Long> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Tag> cached = dictionaryCache.getTags(tagIds);
+        List<Tag> tags = new ArrayList<>(cached.size());
+        for (Long tagId : new LinkedHashSet<>(tagIds)) {
+            Tag tag = cached.get(tagId);
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    @Override
+    public List<Tag> resolveOrCreate(Collection<String> names) {
+        Set<String> wanted = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                if (name != null && !name.trim().isEmpty()) {
+                    wanted.add(name.trim());
+                }
+            }
+        }
+        if (wanted.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 先查字典缓存，只有缓存里没有的名称才访问数据库
+        List<Tag> tags = new ArrayList<>();
+        List<String> uncached = new ArrayList<>();
+        for (String name : wanted) {
+            Tag tag = dictionaryCache.getTagByName(name);
+            if (tag != null) {
+                tags.add(tag);
+            } else {
+                uncached.add(name);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return tags;
         }
 
-        // 如果不存在，创建新标签
-        Tag newTag = new Tag();
-        newTag.setName(name);
-        tagMapper.insert(newTag);
-        return newTag;
+        List<Tag> loaded = new ArrayList<>(tagMapper.findByNames(uncached));
+        // uk_name 的排序规则不区分大小写，这里同样忽略大小写判断哪些名称还不存在
+        Set<String> found = new HashSet<>();
+        for (Tag tag : loaded) {
+            found.add(tag.getName().toLowerCase(Locale.ROOT));
+        }
+        List<String> missing = new ArrayList<>();
+        for (String name : uncached) {
+            if (!found.contains(name.toLowerCase(Locale.ROOT))) {
+                missing.add(name);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // 并发创建同名标签时插入变为空操作，随后的加锁读能看到对方已提交的行
+            tagMapper.insertNames(missing);
+            Set<Long> known = new HashSet<>();
+            for (Tag tag : loaded) {
+                known.add(tag.getTagId());
+            }
+            for (Tag tag : tagMapper.findByNamesForShare(missing)) {
+                if (known.add(tag.getTagId())) {
+                    loaded.add(tag);
+                }
+            }
+        }
+        dictionaryCache.putTags(loaded);
+        tags.addAll(loaded);
+        return tags;
     }
 
     @Override
     public Tag createTag(Tag tag) {
         tagMapper.insert(tag);
+        dictionaryCache.putTags(Collections.singletonList(tag));
         return tag;
     }
 
     @Override
     public void deleteTag(Long tagId) {
         tagMapper.deleteById(tagId);
+        tagBitmapIndex.removeTag(tagId);
+        dictionaryCache.removeTag(tagId);
+    }
+
+    @Override
+    public List<TagFacet> getTagFacets(List<Long> all, List<Long> any, List<Long> none, Long currentUserId) {
+        RoaringBitmap matched = tagBitmapIndex.match(all, any, none, currentUserId,
+                currentUserId != null ? viewerContext.getFriendIds(currentUserId) : null);
+        Map<Long, Integer> counts = tagBitmapIndex.facets(matched);
+
+        List<TagFacet> facets = new ArrayList<>(counts.size());
+        for (Tag tag : dictionaryCache.getAllTags()) {
+            Integer count = counts.get(tag.getTagId());
+            if (count != null) {
+                facets.add(new TagFacet(tag.getTagId(), tag.getName(), count));
+            }
+        }
+        facets.sort(Comparator.comparingInt(TagFacet::getCount).reversed());
+        return facets;
     }
 }
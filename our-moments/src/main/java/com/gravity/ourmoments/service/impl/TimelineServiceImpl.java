@@ -0,0 +1,129 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.gravity.ourmoments.dto.PostSummary;
+import com.gravity.ourmoments.entity.BlogPost;
+import com.gravity.ourmoments.mapper.BlogPostMapper;
+import com.gravity.ourmoments.mapper.TimelineMapper;
+import com.gravity.ourmoments.service.TimelineService;
+import com.gravity.ourmoments.service.ViewerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 写扩散时间线：日志发布时把 post_id 写入每个可见读者的 blog_timeline，读首页只需按索引范围扫描。
+ */
+@Slf4j
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    @Autowired
+    private TimelineMapper timelineMapper;
+
+    @Autowired
+    private BlogPostMapper blogPostMapper;
+
+    @Autowired
+    private ViewerContext viewerContext;
+
+    @Override
+    public List<BlogPost> getTimelinePage(Long userId, LocalDateTime cursorTime, Long cursorId, int limit) {
+        return timelineMapper.findPageBefore(userId, cursorTime, cursorId, limit);
+    }
+
+    @Override
+    public List<PostSummary> getTimelineSummaryPage(Long userId, LocalDateTime cursorTime, Long cursorId, int limit,
+                                                    int excerptLength) {
+        return timelineMapper.findSummaryPageBefore(userId, cursorTime, cursorId, limit, excerptLength);
+    }
+
+    @Override
+    public Collection<Long> fanOutPost(Long postId) {
+        BlogPost header = blogPostMapper.findHeaderById(postId);
+        if (header == null || header.getStatus() == null || header.getStatus() != 1) {
+            return List.of(); // 草稿不进入时间线
+        }
+
+        List<Long> recipients = new ArrayList<>(resolveRecipients(header));
+        for (int from = 0; from < recipients.size(); from += INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + INSERT_CHUNK_SIZE, recipients.size());
+            timelineMapper.insertEntries(postId, recipients.subList(from, to));
+        }
+        return recipients;
+    }
+
+    @Override
+    @Transactional
+    public Collection<Long> refreshPost(Long postId) {
+        // 可见性或状态变化：撤回后按新规则重新扩散，同一事务内读者不会看到中间的空档
+        timelineMapper.deleteByPostId(postId);
+        return fanOutPost(postId);
+    }
+
+    @Override
+    public void retractPost(Long postId) {
+        timelineMapper.deleteByPostId(postId);
+    }
+
+    @Override
+    public void onFriendshipAccepted(Long userId, Long friendId) {
+        timelineMapper.insertPairEntries(userId, friendId);
+    }
+
+    @Override
+    public void onFriendshipEnded(Long userId, Long friendId) {
+        timelineMapper.deletePairEntries(userId, friendId);
+    }
+
+    @Override
+    @Transactional
+    public int backfill() {
+        int inserted = timelineMapper.backfillAuthors();
+        inserted += timelineMapper.backfillFriends();
+        inserted += timelineMapper.backfillPartners();
+        log.info("Timeline backfill inserted {} entries", inserted);
+        return inserted;
+    }
+
+    /**
+     * 按可见性规则计算读者：作者本人总是可见；PUBLIC/FRIENDS 扩散给好友；PARTNER 只给伴侣（用户1和100）
+     */
+    private Set<Long> resolveRecipients(BlogPost header) {
+        Set<Long> recipients = new LinkedHashSet<>();
+        Long authorId = header.getUserId();
+        String visibility = header.getVisibility();
+        if (visibility == null || visibility.isEmpty()) {
+            visibility = "PUBLIC";
+        }
+
+        switch (visibility.toUpperCase()) {
+            case "PUBLIC", "FRIENDS" -> {
+                recipients.add(authorId);
+                viewerContext.getFriendIds(authorId).forEach(recipients::add);
+            }
+            case "PRIVATE" -> recipients.add(authorId);
+            case "PARTNER" -> {
+                recipients.add(authorId);
+                if (authorId == 1L) {
+                    recipients.add(100L);
+                } else if (authorId == 100L) {
+                    recipients.add(1L);
+                }
+            }
+            default -> {
+                // 未知可见性对任何人都不可见
+            }
+        }
+        return recipients;
+    }
+}
@@ -1,12 +1,18 @@
 package com.gravity.ourmoments.service.impl;
 
+import com.gravity.ourmoments.dto.ResourceVersion;
 import com.gravity.ourmoments.entity.User;
 import com.gravity.ourmoments.mapper.UserMapper;
 import com.gravity.ourmoments.service.UserService;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -19,6 +25,11 @@ public class UserServiceImpl implements UserService {
         return userMapper.findById(userId);
     }
 
+    @Override
+    public ResourceVersion getUserVersion(Long userId) {
+        return userMapper.findVersionById(userId);
+    }
+
     @Override
     public User getUserByUsername(String username) {
         return userMapper.findByUsername(username);
@@ -48,6 +59,17 @@ public class UserServiceImpl implements UserService {
         return userMapper.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<User> consumer) {
+        // Cursor 只能在事务（同一个连接）存活期间读取
+        try (Cursor<User> cursor = userMapper.streamAll()) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public List<User> getUsersByRole(String role) {
         return userMapper.findByRole(role);
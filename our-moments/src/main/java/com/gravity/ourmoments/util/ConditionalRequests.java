@@ -0,0 +1,34 @@
+package com.gravity.ourmoments.util;
+
+import com.gravity.ourmoments.dto.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.ZoneId;
+
+/**
+ * Conditional GET helpers: ETag / Last-Modified derived from a {@link ResourceVersion}.
+ */
+public final class ConditionalRequests {
+
+    /**
+     * 允许客户端缓存，但每次使用前必须携带 If-None-Match 重新验证（覆盖 Spring Security 默认的 no-store）
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Checks If-None-Match / If-Modified-Since against the version and writes the ETag and
+     * Last-Modified headers. Returns true when the caller should answer 304 without a body.
+     */
+    public static boolean checkNotModified(WebRequest request, String scope, ResourceVersion version) {
+        long lastModified = version.getLastModified() != null
+                ? version.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        // update_time 只有秒级精度，同一秒内的两次修改只能靠版本计数器区分
+        String eTag = "\"" + scope + "-" + version.getTag() + "\"";
+        return request.checkNotModified(eTag, lastModified);
+    }
+}
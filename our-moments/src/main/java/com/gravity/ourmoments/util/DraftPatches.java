@@ -0,0 +1,91 @@
+package com.gravity.ourmoments.util;
+
+import com.gravity.ourmoments.dto.DraftPatch;
+import com.gravity.ourmoments.entity.BlogMedia;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.util.*;
+
+/**
+ * 草稿补丁的合并：后到的非 null 字段覆盖先到的，同一媒体的修改按字段叠加。
+ */
+public final class DraftPatches {
+
+    private DraftPatches() {
+    }
+
+    /**
+     * Folds {@code newer} into {@code older} and returns {@code older}.
+     */
+    public static DraftPatch merge(DraftPatch older, DraftPatch newer) {
+        copyNonNull(newer, older, "media", "removedMediaIds");
+
+        if (newer.getRemovedMediaIds() != null) {
+            Set<Long> removed = new LinkedHashSet<>();
+            if (older.getRemovedMediaIds() != null) {
+                removed.addAll(older.getRemovedMediaIds());
+            }
+            removed.addAll(newer.getRemovedMediaIds());
+            older.setRemovedMediaIds(new ArrayList<>(removed));
+        }
+
+        if (newer.getMedia() != null) {
+            Map<Long, BlogMedia> byId = new LinkedHashMap<>();
+            List<BlogMedia> added = new ArrayList<>();
+            for (List<BlogMedia> list : Arrays.asList(older.getMedia(), newer.getMedia())) {
+                if (list == null) {
+                    continue;
+                }
+                for (BlogMedia media : list) {
+                    if (media.getMediaId() == null) {
+                        added.add(media);
+                    } else {
+                        byId.merge(media.getMediaId(), media, (a, b) -> {
+                            copyNonNull(b, a);
+                            return a;
+                        });
+                    }
+                }
+            }
+            List<BlogMedia> media = new ArrayList<>(byId.values());
+            media.addAll(added);
+            older.setMedia(media);
+        }
+        return older;
+    }
+
+    /**
+     * Copies the non-null properties of {@code source} onto {@code target}.
+     */
+    public static void copyNonNull(Object source, Object target, String... ignored) {
+        BeanWrapper wrapper = new BeanWrapperImpl(source);
+        List<String> skip = new ArrayList<>(Arrays.asList(ignored));
+        for (PropertyDescriptor descriptor : wrapper.getPropertyDescriptors()) {
+            String name = descriptor.getName();
+            if (wrapper.isReadableProperty(name) && wrapper.getPropertyValue(name) == null) {
+                skip.add(name);
+            }
+        }
+        BeanUtils.copyProperties(source, target, skip.toArray(new String[0]));
+    }
+
+    /**
+     * Media additions and removals cannot be replayed safely, so they are written immediately.
+     */
+    public static boolean isStructural(DraftPatch patch) {
+        if (patch.getRemovedMediaIds() != null && !patch.getRemovedMediaIds().isEmpty()) {
+            return true;
+        }
+        if (patch.getMedia() != null) {
+            for (BlogMedia media : patch.getMedia()) {
+                if (media.getMediaId() == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gravity.ourmoments.util;
+
+import com.gravity.ourmoments.entity.BlogMedia;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 拼贴编辑器保存时的媒体差异：按 mediaId 匹配已有记录，
+ * 只有布局变化的记录才更新，新记录批量插入，缺失的记录按 id 删除。
+ */
+@Getter
+public final class MediaDiff {
+
+    private final List<BlogMedia> inserts = new ArrayList<>();
+    private final List<BlogMedia> updates = new ArrayList<>();
+    private final List<Long> deletedIds = new ArrayList<>();
+
+    private MediaDiff() {
+    }
+
+    /**
+     * @param existing rows currently stored for the post
+     * @param incoming the media list sent by the client; ids that do not belong to the post are treated as new
+     */
+    public static MediaDiff of(Long postId, List<BlogMedia> existing, List<BlogMedia> incoming) {
+        MediaDiff diff = new MediaDiff();
+        Map<Long, BlogMedia> stored = new LinkedHashMap<>();
+        for (BlogMedia media : existing) {
+            stored.put(media.getMediaId(), media);
+        }
+
+        Set<Long> kept = new HashSet<>();
+        for (BlogMedia media : incoming) {
+            media.setPostId(postId);
+            BlogMedia current = media.getMediaId() != null ? stored.get(media.getMediaId()) : null;
+            if (current == null || !kept.add(media.getMediaId())) {
+                media.setMediaId(null);
+                diff.inserts.add(media);
+            } else if (!sameLayout(current, media)) {
+                diff.updates.add(media);
+            }
+        }
+        for (Long mediaId : stored.keySet()) {
+            if (!kept.contains(mediaId)) {
+                diff.deletedIds.add(mediaId);
+            }
+        }
+        return diff;
+    }
+
+    public boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletedIds.isEmpty();
+    }
+
+    private static boolean sameLayout(BlogMedia a, BlogMedia b) {
+        return Objects.equals(a.getMediaUrl(), b.getMediaUrl())
+                && Objects.equals(a.getMediaType(), b.getMediaType())
+                && Objects.equals(a.getRotation(), b.getRotation())
+                && sameDecimal(a.getScale(), b.getScale())
+                && Objects.equals(a.getPositionX(), b.getPositionX())
+                && Objects.equals(a.getPositionY(), b.getPositionY())
+                && Objects.equals(a.getFilterStyle(), b.getFilterStyle())
+                && Objects.equals(a.getZIndex(), b.getZIndex())
+                && Objects.equals(a.getSortOrder(), b.getSortOrder());
+    }
+
+    // DECIMAL 列读回来的精度可能与请求不同（1.5 与 1.50）
+    private static boolean sameDecimal(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gravity.ourmoments.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows one at a time as a JSON array, NDJSON or CSV, so an export never holds more than
+ * one row in memory. CSV columns are taken from the first row; nested objects become JSON text.
+ */
+public class RowStreamWriter implements Closeable {
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String value) {
+            if (value == null || value.isEmpty()) {
+                return JSON;
+            }
+            return Format.valueOf(value.toUpperCase());
+        }
+    }
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final OutputStream out;
+    private JsonGenerator generator;
+    private List<String> csvColumns;
+
+    public RowStreamWriter(OutputStream out, Format format, ObjectMapper objectMapper) throws IOException {
+        this.out = new BufferedOutputStream(out, 8192);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        // 逐行写出时不要每行 flush，由缓冲区决定何时落到网络
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (format == Format.JSON) {
+            generator = objectMapper.getFactory().createGenerator(this.out);
+            generator.writeStartArray();
+        }
+    }
+
+    public void write(Object row) throws IOException {
+        switch (format) {
+            case JSON -> rowWriter.writeValue(generator, row);
+            case NDJSON -> {
+                out.write(rowWriter.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            case CSV -> writeCsv(row);
+        }
+    }
+
+    private void writeCsv(Object row) throws IOException {
+        Map<String, Object> values = objectMapper.convertValue(row, ROW_TYPE);
+        if (csvColumns == null) {
+            csvColumns = new ArrayList<>(values.keySet());
+            writeCsvLine(new ArrayList<>(csvColumns));
+        }
+
+        List<String> cells = new ArrayList<>(csvColumns.size());
+        for (String column : csvColumns) {
+            Object value = values.get(column);
+            if (value == null) {
+                cells.add("");
+            } else if (value instanceof Map || value instanceof Iterable) {
+                cells.add(objectMapper.writeValueAsString(value));
+            } else {
+                cells.add(value.toString());
+            }
+        }
+        writeCsvLine(cells);
+    }
+
+    private void writeCsvLine(List<String> cells) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String cell = cells.get(i);
+            if (cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0) {
+                line.append('"').append(cell.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(cell);
+            }
+        }
+        line.append("\r\n");
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.writeEndArray();
+            generator.flush();
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,112 @@
+package com.gravity.ourmoments.cache;
+
+import com.gravity.ourmoments.entity.Category;
+import com.gravity.ourmoments.entity.Tag;
+import com.gravity.ourmoments.mapper.CategoryMapper;
+import com.gravity.ourmoments.mapper.TagMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DictionaryCacheTest {
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private TagMapper tagMapper;
+
+    @InjectMocks
+    private DictionaryCache dictionaryCache;
+
+    @Test
+    void warmCacheAnswersWithoutQueries() {
+        when(categoryMapper.findAll()).thenReturn(List.of(category(1L, "Travel")));
+        when(tagMapper.findAll()).thenReturn(List.of(tag(10L, "Beach")));
+        dictionaryCache.warmUp();
+
+        assertEquals("Travel", dictionaryCache.getCategory(1L).getName());
+        assertEquals(1L, dictionaryCache.getCategoryIdByName(" travel "));
+        assertEquals(10L, dictionaryCache.getTagByName("BEACH").getTagId());
+        assertEquals("Beach", dictionaryCache.getTag(10L).getName());
+
+        verify(categoryMapper, times(1)).findAll();
+        verify(tagMapper, times(1)).findAll();
+        verifyNoMoreInteractions(categoryMapper, tagMapper);
+    }
+
+    @Test
+    void warmCacheReadsThroughForIdsCreatedOnOtherNodes() {
+        when(tagMapper.findAll()).thenReturn(List.of(tag(10L, "Beach")));
+        when(categoryMapper.findAll()).thenReturn(List.of());
+        dictionaryCache.warmUp();
+        when(tagMapper.findByIds(List.of(11L))).thenReturn(List.of(tag(11L, "Sunset")));
+
+        assertEquals("Sunset", dictionaryCache.getTag(11L).getName());
+        assertEquals("Sunset", dictionaryCache.getTag(11L).getName());
+        verify(tagMapper, times(1)).findByIds(anyCollection());
+    }
+
+    @Test
+    void refreshDropsRowsDeletedOnOtherNodes() {
+        when(tagMapper.findAll()).thenReturn(List.of(tag(10L, "Beach"), tag(11L, "Sunset")), List.of(tag(10L, "Beach")));
+        when(categoryMapper.findAll()).thenReturn(List.of());
+        dictionaryCache.warmUp();
+        assertEquals(11L, dictionaryCache.getTagByName("sunset").getTagId());
+
+        dictionaryCache.refresh();
+
+        assertNull(dictionaryCache.getTagByName("sunset"));
+        assertEquals(1, dictionaryCache.getAllTags().size());
+    }
+
+    @Test
+    void coldCacheReadsThroughOnlyMissingIds() {
+        when(tagMapper.findByIds(anyCollection())).thenReturn(List.of(tag(10L, "Beach")));
+
+        Map<Long, Tag> first = dictionaryCache.getTags(List.of(10L));
+        Map<Long, Tag> second = dictionaryCache.getTags(List.of(10L));
+
+        assertEquals("Beach", first.get(10L).getName());
+        assertSame(first.get(10L), second.get(10L));
+        verify(tagMapper, times(1)).findByIds(anyCollection());
+    }
+
+    @Test
+    void writesReplaceTheSnapshot() {
+        when(tagMapper.findAll()).thenReturn(List.of(tag(10L, "Beach")));
+        dictionaryCache.warmUp();
+
+        dictionaryCache.putTags(List.of(tag(11L, "Sunset")));
+        assertEquals(11L, dictionaryCache.getTagByName("sunset").getTagId());
+        assertEquals(2, dictionaryCache.getAllTags().size());
+
+        dictionaryCache.removeTag(10L);
+        assertNull(dictionaryCache.getTagByName("beach"));
+        assertNull(dictionaryCache.getTag(10L));
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private static Tag tag(Long id, String name) {
+        Tag tag = new Tag();
+        tag.setTagId(id);
+        tag.setName(name);
+        return tag;
+    }
+}
@@ -0,0 +1,61 @@
+package com.gravity.ourmoments.cache;
+
+import com.gravity.ourmoments.dto.CursorPage;
+import com.gravity.ourmoments.entity.BlogPost;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCacheTest {
+
+    private final FeedCache.Key key = new FeedCache.Key(1L, null, FeedCache.View.FEED, null, null, 2);
+
+    @Test
+    void returnsReadOnlyCopiesOfTheCachedPage() {
+        FeedCache cache = new FeedCache(100, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        CursorPage<BlogPost> first = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return page(2);
+        });
+        assertThrows(UnsupportedOperationException.class, () -> first.getItems().clear());
+        first.setItems(new ArrayList<>());
+
+        CursorPage<BlogPost> second = cache.get(key, () -> {
+            loads.incrementAndGet();
+            return page(2);
+        });
+        assertEquals(2, second.getItems().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidatesViewerPagesOnFriendshipChange() {
+        FeedCache cache = new FeedCache(100, 60);
+        cache.get(key, () -> page(1));
+
+        cache.invalidateFriendship(1L, 2L);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(key, () -> {
+            loads.incrementAndGet();
+            return page(1);
+        });
+        assertEquals(1, loads.get());
+    }
+
+    private static CursorPage<BlogPost> page(int size) {
+        List<BlogPost> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            BlogPost post = new BlogPost();
+            post.setPostId((long) i);
+            items.add(post);
+        }
+        return new CursorPage<>(items, null, null, false);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gravity.ourmoments.cache;
+
+import com.gravity.ourmoments.dto.UserCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UnreadCountersTest {
+
+    @Test
+    void loadsOnceThenAppliesDeltas() {
+        AtomicInteger loads = new AtomicInteger();
+        UnreadCounters.Counter counter = new UnreadCounters.Counter(userId -> {
+            loads.incrementAndGet();
+            return 3;
+        }, ids -> List.of());
+
+        assertEquals(3, counter.get(1L));
+        counter.add(1L, 2);
+        counter.add(1L, -10);
+        assertEquals(0, counter.get(1L));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void deltasForUnloadedUsersAreLeftToTheLoader() {
+        UnreadCounters.Counter counter = new UnreadCounters.Counter(userId -> 5, ids -> List.of());
+
+        counter.add(1L, 1);
+        assertEquals(5, counter.get(1L));
+        counter.clear(2L);
+        assertEquals(0, counter.get(2L));
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndZeroesMissingUsers() {
+        List<Collection<Long>> batches = new ArrayList<>();
+        UnreadCounters.Counter counter = new UnreadCounters.Counter(userId -> 4, ids -> {
+            batches.add(List.copyOf(ids));
+            return List.of(count(1L, 4));
+        });
+        counter.get(1L);
+        counter.get(2L);
+
+        assertEquals(1, counter.reconcile());
+        assertEquals(4, counter.get(1L));
+        assertEquals(0, counter.get(2L));
+        assertEquals(1, batches.size());
+    }
+
+    private static UserCount count(Long userId, int count) {
+        UserCount row = new UserCount();
+        row.setUserId(userId);
+        row.setCount(count);
+        return row;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.entity.User;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the comments ETag query in CommentMapper.xml against real rows in an in-memory database.
+ */
+class CommentMapperTest {
+
+    private SqlSession session;
+    private CommentMapper commentMapper;
+    private UserMapper userMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:comments;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE sys_user (user_id BIGINT PRIMARY KEY, nickname VARCHAR(64), avatar VARCHAR(255), "
+                    + "bio VARCHAR(255), email VARCHAR(100), version INT NOT NULL DEFAULT 0, update_time TIMESTAMP)");
+            statement.execute("CREATE TABLE blog_post (post_id BIGINT PRIMARY KEY, comment_version INT NOT NULL DEFAULT 0, "
+                    + "update_time TIMESTAMP)");
+            statement.execute("CREATE TABLE blog_comment (comment_id BIGINT PRIMARY KEY, post_id BIGINT, user_id BIGINT, "
+                    + "content TEXT, update_time TIMESTAMP)");
+            statement.execute("INSERT INTO sys_user (user_id, nickname) VALUES (1, 'a'), (2, 'b')");
+            statement.execute("INSERT INTO blog_post (post_id) VALUES (10), (11)");
+            statement.execute("INSERT INTO blog_comment VALUES (100, 10, 1, 'hi', NOW()), (101, 10, 1, 'again', NOW())");
+        }
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        for (String resource : new String[]{"mapper/UserMapper.xml", "mapper/CommentMapper.xml"}) {
+            try (InputStream in = Resources.getResourceAsStream(resource)) {
+                new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+        session = new SqlSessionFactoryBuilder().build(configuration).openSession();
+        commentMapper = session.getMapper(CommentMapper.class);
+        userMapper = session.getMapper(UserMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void commentWritesChangeTheTagWithinTheSameSecond() {
+        String before = commentMapper.findVersionByPostId(10L).getTag();
+
+        commentMapper.bumpCommentVersion(10L);
+
+        assertNotEquals(before, commentMapper.findVersionByPostId(10L).getTag());
+    }
+
+    @Test
+    void commenterProfileChangesChangeTheTag() {
+        String before = commentMapper.findVersionByPostId(10L).getTag();
+        String otherPost = commentMapper.findVersionByPostId(11L).getTag();
+
+        User user = new User();
+        user.setUserId(1L);
+        user.setNickname("renamed");
+        userMapper.update(user);
+
+        assertNotEquals(before, commentMapper.findVersionByPostId(10L).getTag());
+        assertEquals(otherPost, commentMapper.findVersionByPostId(11L).getTag());
+    }
+
+    @Test
+    void postWithoutCommentsStillHasAVersion() {
+        assertEquals("0.0", commentMapper.findVersionByPostId(11L).getTag());
+        assertNull(commentMapper.findVersionByPostId(11L).getLastModified());
+    }
+}
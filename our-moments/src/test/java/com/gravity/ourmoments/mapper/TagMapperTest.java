@@ -0,0 +1,73 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.entity.PostTag;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs TagMapper.xml against real rows in an in-memory database.
+ */
+class TagMapperTest {
+
+    private SqlSession session;
+    private TagMapper tagMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:tags;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE sys_tag (tag_id BIGINT PRIMARY KEY, name VARCHAR(50), create_time TIMESTAMP)");
+            statement.execute("CREATE TABLE blog_post_tag (post_id BIGINT, tag_id BIGINT)");
+            statement.execute("INSERT INTO sys_tag VALUES (10, 'a', NOW()), (11, 'b', NOW())");
+            statement.execute("INSERT INTO blog_post_tag VALUES (1, 10), (1, 11), (2, 10)");
+        }
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        String resource = "mapper/TagMapper.xml";
+        try (InputStream in = Resources.getResourceAsStream(resource)) {
+            new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+        }
+        SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+        session = factory.openSession();
+        tagMapper = session.getMapper(TagMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void findByPostIdsReturnsOneRowPerPostTagPair() {
+        List<PostTag> rows = tagMapper.findByPostIds(List.of(1L, 2L));
+
+        assertEquals(3, rows.size());
+        List<String> pairs = rows.stream()
+                .map(row -> row.getPostId() + ":" + row.getTag().getName())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of("1:a", "1:b", "2:a"), pairs);
+        assertEquals(10L, rows.stream().filter(row -> row.getTag().getName().equals("a")).findFirst().get().getTag().getTagId());
+    }
+}
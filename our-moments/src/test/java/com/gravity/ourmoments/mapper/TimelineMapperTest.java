@@ -0,0 +1,94 @@
+package com.gravity.ourmoments.mapper;
+
+import com.gravity.ourmoments.dto.PostSummary;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the timeline summary page query against real rows in an in-memory database.
+ */
+class TimelineMapperTest {
+
+    private SqlSession session;
+    private TimelineMapper timelineMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:timeline;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE sys_user (user_id BIGINT PRIMARY KEY, nickname VARCHAR(50), avatar VARCHAR(255))");
+            statement.execute("CREATE TABLE blog_post (post_id BIGINT PRIMARY KEY, user_id BIGINT, category_id BIGINT,"
+                    + " title VARCHAR(100), content TEXT, weather VARCHAR(20), mood VARCHAR(20), location VARCHAR(100),"
+                    + " status INT, visibility VARCHAR(20), create_time TIMESTAMP, update_time TIMESTAMP)");
+            statement.execute("CREATE TABLE blog_media (media_id BIGINT PRIMARY KEY, post_id BIGINT, media_url VARCHAR(255), sort_order INT)");
+            statement.execute("CREATE TABLE blog_timeline (user_id BIGINT, post_id BIGINT, author_id BIGINT, create_time TIMESTAMP,"
+                    + " PRIMARY KEY (user_id, post_id))");
+            statement.execute("INSERT INTO sys_user VALUES (1, 'me', 'a.png'), (2, 'friend', 'b.png')");
+            statement.execute("INSERT INTO blog_post VALUES"
+                    + " (1, 1, NULL, 'one', 'first post body', NULL, NULL, NULL, 1, 'PUBLIC', '2026-01-01 10:00:00', NULL),"
+                    + " (2, 2, NULL, 'two', 'second', NULL, NULL, NULL, 1, 'FRIENDS', '2026-01-02 10:00:00', NULL),"
+                    + " (3, 2, NULL, 'three', 'third', NULL, NULL, NULL, 1, 'FRIENDS', '2026-01-02 10:00:00', NULL),"
+                    + " (4, 2, NULL, 'other', 'not fanned out to user 1', NULL, NULL, NULL, 1, 'PUBLIC', '2026-01-03 10:00:00', NULL)");
+            statement.execute("INSERT INTO blog_media VALUES (10, 2, 'cover.png', 0), (11, 2, 'second.png', 1)");
+            statement.execute("INSERT INTO blog_timeline VALUES"
+                    + " (1, 1, 1, '2026-01-01 10:00:00'), (1, 2, 2, '2026-01-02 10:00:00'),"
+                    + " (1, 3, 2, '2026-01-02 10:00:00'), (2, 4, 2, '2026-01-03 10:00:00')");
+        }
+
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        for (String resource : List.of("mapper/BlogPostMapper.xml", "mapper/TimelineMapper.xml")) {
+            try (InputStream in = Resources.getResourceAsStream(resource)) {
+                new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+        SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+        session = factory.openSession();
+        timelineMapper = session.getMapper(TimelineMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+    }
+
+    @Test
+    void summaryPageReadsOnlyTheReadersEntriesNewestFirst() {
+        List<PostSummary> page = timelineMapper.findSummaryPageBefore(1L, null, null, 2, 5);
+
+        assertEquals(List.of(3L, 2L), page.stream().map(PostSummary::getPostId).toList());
+        PostSummary second = page.get(1);
+        assertEquals("secon", second.getExcerpt());
+        assertEquals("cover.png", second.getCoverUrl());
+        assertEquals(2, second.getMediaCount());
+        assertEquals("friend", second.getAuthor().getNickname());
+    }
+
+    @Test
+    void summaryPageContinuesFromTheCursorOnTies() {
+        PostSummary last = timelineMapper.findSummaryPageBefore(1L, null, null, 2, 5).get(1);
+
+        List<PostSummary> next = timelineMapper.findSummaryPageBefore(1L, last.getCreateTime(), last.getPostId(), 2, 5);
+
+        assertEquals(List.of(1L), next.stream().map(PostSummary::getPostId).toList());
+    }
+}
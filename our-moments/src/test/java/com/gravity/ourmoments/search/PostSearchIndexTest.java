@@ -0,0 +1,134 @@
+package com.gravity.ourmoments.search;
+
+import com.gravity.ourmoments.dto.SearchDocument;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private static SearchDocument doc(long postId, long authorId, String visibility, String title, String content) {
+        SearchDocument document = new SearchDocument();
+        document.setPostId(postId);
+        document.setUserId(authorId);
+        document.setTitle(title);
+        document.setContent(content);
+        document.setStatus(1);
+        document.setVisibility(visibility);
+        document.setCreateTime(BASE.plusMinutes(postId));
+        document.setUpdateTime(BASE.plusMinutes(postId));
+        return document;
+    }
+
+    @Test
+    void matchesCjkBigramsAndSingleCharacters() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "PUBLIC", "周末", "今天和小猫一起去公园散步"));
+        index.index(doc(2, 7, "PUBLIC", "工作", "加班到很晚"));
+
+        assertEquals(List.of(1L), index.search("公园", null, null, 10));
+        assertEquals(List.of(1L), index.search("猫", null, null, 10));
+        assertEquals(List.of(1L), index.search("今", null, null, 10));
+        assertEquals(List.of(2L), index.search("班", null, null, 10));
+        assertEquals(List.of(1L), index.search("步", null, null, 10));
+        assertEquals(List.of(1L), index.search("散步 公园", null, null, 10));
+        assertTrue(index.search("公园 加班", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void matchesLatinWordsCaseInsensitively() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "PUBLIC", "Trip to Tokyo", "Shibuya at night"));
+
+        assertEquals(List.of(1L), index.search("tokyo", null, null, 10));
+        assertEquals(List.of(1L), index.search("ＳＨＩＢＵＹＡ", null, null, 10));
+    }
+
+    @Test
+    void ranksTitleMatchesFirst() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "PUBLIC", "日记", "今天去海边看海了"));
+        index.index(doc(2, 7, "PUBLIC", "看海", "风很大"));
+
+        assertEquals(List.of(2L, 1L), index.search("看海", null, null, 10));
+        assertEquals(List.of(2L), index.search("看海", null, null, 1));
+    }
+
+    @Test
+    void filtersByVisibility() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "FRIENDS", "旅行", "旅行"));
+        index.index(doc(2, 7, "PRIVATE", "旅行", "旅行"));
+        index.index(doc(3, 1, "PARTNER", "旅行", "旅行"));
+
+        LongHashSet friendsOfViewer = new LongHashSet();
+        friendsOfViewer.add(7L);
+
+        assertTrue(index.search("旅行", null, null, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("旅行", 8L, friendsOfViewer, 10));
+        assertEquals(List.of(2L, 1L), index.search("旅行", 7L, null, 10));
+        assertEquals(List.of(3L), index.search("旅行", 100L, null, 10));
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceOldTerms() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "PUBLIC", "早餐", "豆浆油条"));
+
+        SearchDocument edited = doc(1, 7, "PUBLIC", "午餐", "牛肉面");
+        edited.setUpdateTime(BASE.plusHours(1));
+        index.index(edited);
+        assertTrue(index.search("豆浆", null, null, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("牛肉面", null, null, 10));
+
+        SearchDocument draft = doc(1, 7, "PUBLIC", "午餐", "牛肉面");
+        draft.setStatus(0);
+        draft.setUpdateTime(BASE.plusHours(2));
+        index.index(draft);
+        assertTrue(index.search("牛肉面", null, null, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void snapshotRoundTrip(@TempDir Path dir) throws Exception {
+        PostSearchIndex index = new PostSearchIndex();
+        ReflectionTestUtils.setField(index, "snapshotPath", dir.resolve("posts.idx").toString());
+        index.index(doc(1, 7, "PUBLIC", "早餐", "豆浆油条"));
+        index.index(doc(2, 7, "PUBLIC", "晚餐", "火锅"));
+        index.remove(1L);
+        index.saveSnapshot();
+
+        PostSearchIndex restored = new PostSearchIndex();
+        ReflectionTestUtils.setField(restored, "snapshotPath", dir.resolve("posts.idx").toString());
+        assertTrue(restored.loadSnapshot());
+        assertEquals(1, restored.size());
+        assertEquals(List.of(2L), restored.search("火锅", null, null, 10));
+        assertTrue(restored.search("豆浆", null, null, 10).isEmpty());
+        assertEquals(index.getHighWaterMark(), restored.getHighWaterMark());
+    }
+
+    @Test
+    void retainAllDropsDeletedPostsButKeepsRecentlyIndexedOnes() {
+        PostSearchIndex index = new PostSearchIndex();
+        index.index(doc(1, 7, "PUBLIC", "早餐", "豆浆油条"));
+        index.index(doc(2, 7, "PUBLIC", "早餐", "包子"));
+        index.index(doc(30, 7, "PUBLIC", "早餐", "煎饼"));
+        LongHashSet live = new LongHashSet();
+        live.add(2L);
+
+        // post 30 was indexed after the id list was read, so it must survive even though it is missing
+        assertEquals(1, index.retainAll(live, BASE.plusMinutes(10)));
+
+        assertEquals(List.of(30L, 2L), index.search("早餐", null, null, 10));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.gravity.ourmoments.search;
+
+import com.gravity.ourmoments.dto.PostTagRow;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagBitmapIndexTest {
+
+    private TagBitmapIndex index;
+
+    private void tag(long postId, long authorId, String visibility, Long... tagIds) {
+        for (Long tagId : tagIds.length == 0 ? new Long[]{null} : tagIds) {
+            PostTagRow row = new PostTagRow();
+            row.setPostId(postId);
+            row.setUserId(authorId);
+            row.setVisibility(visibility);
+            row.setTagId(tagId);
+            index.add(row);
+        }
+    }
+
+    private List<Long> ids(List<Long> all, List<Long> any, List<Long> none) {
+        return index.page(index.match(all, any, none, null, null), null, 100);
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new TagBitmapIndex();
+        tag(1, 7, "PUBLIC", 10L, 20L);
+        tag(2, 7, "PUBLIC", 10L);
+        tag(3, 8, null, 20L, 30L);
+        tag(4, 8, "PUBLIC");
+    }
+
+    @Test
+    void combinesAndOrNot() {
+        assertEquals(List.of(1L), ids(List.of(10L, 20L), null, null));
+        assertEquals(List.of(3L, 2L, 1L), ids(null, List.of(10L, 30L), null));
+        assertEquals(List.of(2L), ids(List.of(10L), null, List.of(20L)));
+        assertEquals(List.of(4L, 2L), ids(null, null, List.of(20L)));
+        assertTrue(ids(List.of(99L), null, null).isEmpty());
+    }
+
+    @Test
+    void filtersByVisibility() {
+        tag(5, 7, "FRIENDS", 10L);
+        tag(6, 7, "PRIVATE", 10L);
+        tag(7, 100, "PARTNER", 10L);
+        LongHashSet friends = new LongHashSet();
+        friends.add(7L);
+
+        assertEquals(List.of(2L, 1L), index.page(index.match(List.of(10L), null, null, null, null), null, 10));
+        assertEquals(List.of(5L, 2L, 1L), index.page(index.match(List.of(10L), null, null, 8L, friends), null, 10));
+        assertEquals(List.of(6L, 5L, 2L, 1L), index.page(index.match(List.of(10L), null, null, 7L, null), null, 10));
+        assertEquals(List.of(7L, 2L, 1L), index.page(index.match(List.of(10L), null, null, 1L, null), null, 10));
+    }
+
+    @Test
+    void pagesBelowCursor() {
+        RoaringBitmap matched = index.match(null, null, null, null, null);
+        assertEquals(List.of(4L, 3L), index.page(matched, null, 2));
+        assertEquals(List.of(2L, 1L), index.page(matched, 3L, 2));
+    }
+
+    @Test
+    void countsFacetsAndReflectsRemovals() {
+        assertEquals(Map.of(10L, 2, 20L, 2, 30L, 1), index.facets(index.match(null, null, null, null, null)));
+
+        index.removePost(1L, 7L);
+        index.removeTag(30L);
+        assertEquals(Map.of(10L, 1, 20L, 1), index.facets(index.match(null, null, null, null, null)));
+    }
+
+    @Test
+    void replaceWithSwapsInTheRebuiltIndex() {
+        TagBitmapIndex live = index;
+        index = new TagBitmapIndex();
+        tag(2, 7, "PUBLIC", 30L);
+        tag(5, 9, "FRIENDS", 10L);
+        TagBitmapIndex rebuilt = index;
+        LongHashSet friends = new LongHashSet();
+        friends.add(9L);
+
+        live.replaceWith(rebuilt);
+        index = live;
+
+        assertEquals(List.of(2L), ids(List.of(30L), null, null));
+        assertTrue(ids(List.of(20L), null, null).isEmpty());
+        assertEquals(List.of(5L), index.page(index.match(List.of(10L), null, null, 1L, friends), null, 10));
+    }
+}
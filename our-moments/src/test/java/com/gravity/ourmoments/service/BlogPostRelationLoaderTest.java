@@ -0,0 +1,109 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.cache.DictionaryCache;
+import com.gravity.ourmoments.entity.*;
+import com.gravity.ourmoments.mapper.BlogMediaMapper;
+import com.gravity.ourmoments.mapper.TagMapper;
+import com.gravity.ourmoments.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlogPostRelationLoaderTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private DictionaryCache dictionaryCache;
+
+    @Mock
+    private BlogMediaMapper blogMediaMapper;
+
+    @Mock
+    private TagMapper tagMapper;
+
+    @InjectMocks
+    private BlogPostRelationLoader relationLoader;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 50, 200})
+    void queryCountDoesNotGrowWithPageSize(int pageSize) {
+        relationLoader.load(posts(pageSize));
+
+        verify(userMapper, times(1)).findByIds(anyCollection());
+        verify(dictionaryCache, times(1)).getCategories(anyCollection());
+        verify(blogMediaMapper, times(1)).findByPostIds(anyCollection());
+        verify(tagMapper, times(1)).findByPostIds(anyCollection());
+        verifyNoMoreInteractions(userMapper, dictionaryCache, blogMediaMapper, tagMapper);
+    }
+
+    @Test
+    void stitchesRelationsOntoPosts() {
+        List<BlogPost> posts = posts(2);
+
+        User author = new User();
+        author.setUserId(posts.get(0).getUserId());
+        author.setNickname("Mia");
+        author.setPassword("secret");
+        author.setEmail("mia@example.com");
+        Category category = new Category();
+        category.setCategoryId(posts.get(0).getCategoryId());
+        BlogMedia media = new BlogMedia();
+        media.setPostId(1L);
+        Tag tag = new Tag();
+        tag.setTagId(101L);
+        PostTag postTag = new PostTag();
+        postTag.setPostId(2L);
+        postTag.setTag(tag);
+
+        when(userMapper.findByIds(anyCollection())).thenReturn(List.of(author));
+        when(dictionaryCache.getCategories(anyCollection())).thenReturn(Map.of(category.getCategoryId(), category));
+        when(blogMediaMapper.findByPostIds(anyCollection())).thenReturn(List.of(media));
+        when(tagMapper.findByPostIds(anyCollection())).thenReturn(List.of(postTag));
+
+        relationLoader.load(posts);
+
+        assertEquals(author.getUserId(), posts.get(0).getAuthor().getUserId());
+        assertEquals("Mia", posts.get(0).getAuthor().getNickname());
+        assertNull(posts.get(0).getAuthor().getPassword());
+        assertNull(posts.get(0).getAuthor().getEmail());
+        assertSame(category, posts.get(0).getCategory());
+        assertEquals(List.of(media), posts.get(0).getMediaList());
+        assertTrue(posts.get(0).getTagList().isEmpty());
+        assertTrue(posts.get(1).getMediaList().isEmpty());
+        assertEquals(List.of(tag), posts.get(1).getTagList());
+    }
+
+    @Test
+    void emptyPageIssuesNoQueries() {
+        relationLoader.load(new ArrayList<>());
+
+        verifyNoInteractions(userMapper, dictionaryCache, blogMediaMapper, tagMapper);
+    }
+
+    private List<BlogPost> posts(int count) {
+        List<BlogPost> posts = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            BlogPost post = new BlogPost();
+            post.setPostId(i);
+            post.setUserId(i % 3 + 1);
+            post.setCategoryId(i % 2 + 1);
+            posts.add(post);
+        }
+        return posts;
+    }
+}
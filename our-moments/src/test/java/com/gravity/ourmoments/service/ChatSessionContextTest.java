@@ -0,0 +1,94 @@
+package com.gravity.ourmoments.service;
+
+import com.gravity.ourmoments.event.FriendshipChangedEvent;
+import com.gravity.ourmoments.util.LongHashSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatSessionContextTest {
+
+    @Mock
+    private ViewerContext viewerContext;
+
+    @InjectMocks
+    private ChatSessionContext chatSessionContext;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(chatSessionContext, "friendsTtlMs", 60_000L);
+    }
+
+    @Test
+    void friendSetIsLoadedOncePerSession() {
+        when(viewerContext.getFriendIds(1L)).thenReturn(friends(2L));
+        Map<String, Object> session = new ConcurrentHashMap<>();
+        chatSessionContext.register("s1", session, 1L);
+
+        assertEquals(1L, chatSessionContext.getUserId(session));
+        assertTrue(chatSessionContext.areFriends(session, 1L, 2L));
+        assertFalse(chatSessionContext.areFriends(session, 1L, 3L));
+        verify(viewerContext, times(1)).getFriendIds(1L);
+    }
+
+    @Test
+    void friendshipChangeEvictsEverySessionOfBothUsers() {
+        when(viewerContext.getFriendIds(1L)).thenReturn(friends(2L), friends());
+        when(viewerContext.getFriendIds(2L)).thenReturn(friends(1L), friends());
+        Map<String, Object> first = new ConcurrentHashMap<>();
+        Map<String, Object> second = new ConcurrentHashMap<>();
+        chatSessionContext.register("s1", first, 1L);
+        chatSessionContext.register("s2", second, 2L);
+        assertTrue(chatSessionContext.areFriends(first, 1L, 2L));
+        assertTrue(chatSessionContext.areFriends(second, 2L, 1L));
+
+        chatSessionContext.handleFriendshipChanged(new FriendshipChangedEvent(1L, 2L));
+
+        assertFalse(chatSessionContext.areFriends(first, 1L, 2L));
+        assertFalse(chatSessionContext.areFriends(second, 2L, 1L));
+    }
+
+    @Test
+    void loadRacingWithChangeIsNotCached() {
+        Map<String, Object> session = new ConcurrentHashMap<>();
+        chatSessionContext.register("s1", session, 1L);
+        when(viewerContext.getFriendIds(1L)).thenAnswer(invocation -> {
+            chatSessionContext.handleFriendshipChanged(new FriendshipChangedEvent(1L, 2L));
+            return friends(2L);
+        }).thenReturn(friends());
+
+        assertTrue(chatSessionContext.areFriends(session, 1L, 2L));
+        assertFalse(chatSessionContext.areFriends(session, 1L, 2L));
+    }
+
+    @Test
+    void expiredFriendSetIsReloadedForChangesMadeOnOtherNodes() {
+        ReflectionTestUtils.setField(chatSessionContext, "friendsTtlMs", 0L);
+        when(viewerContext.getFriendIds(1L)).thenReturn(friends(2L), friends());
+        Map<String, Object> session = new ConcurrentHashMap<>();
+        chatSessionContext.register("s1", session, 1L);
+
+        // 没有本地事件，其他节点删除了好友关系
+        assertTrue(chatSessionContext.areFriends(session, 1L, 2L));
+        assertFalse(chatSessionContext.areFriends(session, 1L, 2L));
+    }
+
+    private static LongHashSet friends(long... ids) {
+        LongHashSet set = new LongHashSet();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,120 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.gravity.ourmoments.entity.Message;
+import com.gravity.ourmoments.service.MessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ChatMessageWriterImplTest {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+
+    private MessageService messageService;
+    private ChatMessageWriterImpl writer;
+
+    @BeforeEach
+    void setUp() {
+        messageService = mock(MessageService.class);
+        when(messageService.saveMessages(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(messages.size());
+            }
+            if (batchSizes.size() == 1) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(5, TimeUnit.SECONDS);
+            }
+            for (Message message : messages) {
+                if ("bad".equals(message.getContent())) {
+                    throw new IllegalStateException("rejected");
+                }
+            }
+            messages.forEach(message -> message.setMessageId(ids.incrementAndGet()));
+            return messages;
+        });
+
+        writer = new ChatMessageWriterImpl();
+        ReflectionTestUtils.setField(writer, "messageService", messageService);
+        ReflectionTestUtils.setField(writer, "maxBatch", 50);
+        ReflectionTestUtils.setField(writer, "maxDelayMs", 0L);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 100L);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstWrite.countDown();
+        writer.shutdown();
+    }
+
+    @Test
+    void messagesQueuedDuringAWriteShareOneInsert() throws Exception {
+        CompletableFuture<Message> first = writer.submit(1L, 2L, "hello");
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Message>> queued = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            queued.add(writer.submit(1L, 2L, "message " + i));
+        }
+        assertFalse(first.isDone(), "acknowledged before the write finished");
+        releaseFirstWrite.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getMessageId());
+        for (CompletableFuture<Message> future : queued) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS).getMessageId());
+        }
+        assertEquals(List.of(1, 20), batchSizes);
+    }
+
+    @Test
+    void failedBatchIsRetriedMessageByMessage() throws Exception {
+        writer.submit(1L, 2L, "warm-up");
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Message> good = writer.submit(1L, 2L, "good");
+        CompletableFuture<Message> bad = writer.submit(1L, 2L, "bad");
+        releaseFirstWrite.countDown();
+
+        assertEquals("good", good.get(5, TimeUnit.SECONDS).getContent());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        // warm-up, the failed pair, then one retry each
+        assertEquals(List.of(1, 2, 1, 1), batchSizes);
+    }
+
+    @Test
+    void shutdownFailsMessagesTheWriterCanNoLongerSave() throws Exception {
+        CompletableFuture<Message> inFlight = writer.submit(1L, 2L, "hello");
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Message> queued = writer.submit(1L, 2L, "queued");
+
+        // the writer is stuck in the first write past the shutdown timeout
+        writer.shutdown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        CompletableFuture<Message> late = writer.submit(1L, 2L, "late");
+        assertTrue(late.isCompletedExceptionally());
+
+        releaseFirstWrite.countDown();
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS).getMessageId());
+        assertEquals(List.of(1), batchSizes);
+    }
+}
@@ -0,0 +1,134 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gravity.ourmoments.dto.DraftPatch;
+import com.gravity.ourmoments.entity.BlogMedia;
+import com.gravity.ourmoments.entity.BlogPost;
+import com.gravity.ourmoments.service.BlogPostService;
+import com.gravity.ourmoments.service.DraftAutosaveService.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DraftAutosaveServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private BlogPostService blogPostService;
+    private DraftAutosaveServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        blogPostService = mock(BlogPostService.class);
+        BlogPost draft = new BlogPost();
+        draft.setPostId(1L);
+        draft.setUserId(7L);
+        draft.setStatus(0);
+        when(blogPostService.getPostHeader(1L)).thenReturn(draft);
+        when(blogPostService.applyDraftPatch(eq(1L), any())).thenReturn(true);
+        service = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void coalescesPatchesIntoOneWrite() {
+        for (int x = 0; x < 20; x++) {
+            assertEquals(Result.BUFFERED, service.autosave(1L, 7L, move(10L, x)));
+        }
+        service.autosave(1L, 7L, title("Seaside"));
+        service.flushAll();
+
+        ArgumentCaptor<DraftPatch> patch = ArgumentCaptor.forClass(DraftPatch.class);
+        verify(blogPostService, times(1)).applyDraftPatch(eq(1L), patch.capture());
+        verify(blogPostService, times(1)).getPostHeader(1L);
+        assertEquals("Seaside", patch.getValue().getTitle());
+        assertEquals(1, patch.getValue().getMedia().size());
+        assertEquals(19, patch.getValue().getMedia().get(0).getPositionX());
+        assertEquals(90, patch.getValue().getMedia().get(0).getRotation());
+    }
+
+    @Test
+    void rejectsOtherUsers() {
+        assertEquals(Result.FORBIDDEN, service.autosave(1L, 8L, title("x")));
+        assertEquals(Result.NOT_FOUND, service.autosave(2L, 7L, title("x")));
+    }
+
+    @Test
+    void replaysUnsavedPatchesAfterCrash() {
+        service.autosave(1L, 7L, move(10L, 5));
+        service.autosave(1L, 7L, title("Before crash"));
+        // 模拟进程崩溃：不调用 shutdown，直接用同一个日志文件启动新实例
+        DraftAutosaveServiceImpl restarted = newService();
+        restarted.flushAll();
+
+        ArgumentCaptor<DraftPatch> patch = ArgumentCaptor.forClass(DraftPatch.class);
+        verify(blogPostService).applyDraftPatch(eq(1L), patch.capture());
+        assertEquals("Before crash", patch.getValue().getTitle());
+        assertEquals(5, patch.getValue().getMedia().get(0).getPositionX());
+        restarted.shutdown();
+    }
+
+    @Test
+    void failedWritesStayBufferedAndSavedDraftsAreNotReplayed() {
+        when(blogPostService.applyDraftPatch(eq(1L), any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(true);
+        service.autosave(1L, 7L, title("First"));
+        service.flushAll();
+        service.autosave(1L, 7L, move(10L, 3));
+        service.flushAll();
+
+        ArgumentCaptor<DraftPatch> patch = ArgumentCaptor.forClass(DraftPatch.class);
+        verify(blogPostService, times(2)).applyDraftPatch(eq(1L), patch.capture());
+        assertEquals("First", patch.getValue().getTitle());
+        assertEquals(3, patch.getValue().getMedia().get(0).getPositionX());
+
+        DraftAutosaveServiceImpl restarted = newService();
+        restarted.flushAll();
+        verify(blogPostService, times(2)).applyDraftPatch(eq(1L), any());
+        restarted.shutdown();
+    }
+
+    private DraftAutosaveServiceImpl newService() {
+        DraftAutosaveServiceImpl instance = new DraftAutosaveServiceImpl();
+        ReflectionTestUtils.setField(instance, "blogPostService", blogPostService);
+        ReflectionTestUtils.setField(instance, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(instance, "walPath", dir.resolve("draft.wal").toString());
+        instance.start();
+        return instance;
+    }
+
+    private static DraftPatch move(Long mediaId, int x) {
+        BlogMedia media = new BlogMedia();
+        media.setMediaId(mediaId);
+        media.setPositionX(x);
+        if (x == 0) {
+            media.setRotation(90);
+        }
+        DraftPatch patch = new DraftPatch();
+        patch.setMedia(List.of(media));
+        return patch;
+    }
+
+    private static DraftPatch title(String title) {
+        DraftPatch patch = new DraftPatch();
+        patch.setTitle(title);
+        return patch;
+    }
+}
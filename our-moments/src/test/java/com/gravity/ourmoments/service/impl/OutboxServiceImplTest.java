@@ -0,0 +1,187 @@
+package com.gravity.ourmoments.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gravity.ourmoments.dto.NewPostEmail;
+import com.gravity.ourmoments.entity.Notification;
+import com.gravity.ourmoments.entity.OutboxEvent;
+import com.gravity.ourmoments.listener.NotificationEventListener;
+import com.gravity.ourmoments.mapper.OutboxMapper;
+import com.gravity.ourmoments.service.EmailService;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxMapper outboxMapper;
+    private NotificationEventListener pusher;
+    private PlatformTransactionManager transactionManager;
+    private OutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        outboxMapper = mock(OutboxMapper.class);
+        pusher = mock(NotificationEventListener.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new OutboxServiceImpl();
+        ReflectionTestUtils.setField(service, "outboxMapper", outboxMapper);
+        ReflectionTestUtils.setField(service, "notificationEventListener", pusher);
+        ReflectionTestUtils.setField(service, "emailService", mock(EmailService.class));
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "taskScheduler", mock(ThreadPoolTaskScheduler.class));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "maxBackoffSeconds", 300L);
+        ReflectionTestUtils.setField(service, "pollIntervalMs", 1000L);
+    }
+
+    @Test
+    void deliversAndDeletesInBatchesUntilDrained() throws Exception {
+        when(outboxMapper.claimBatch(2))
+                .thenReturn(List.of(push(1L, 10L, 0), fanOut(2L, 11L, 20L, 21L)))
+                .thenReturn(List.of(push(3L, 12L, 0)));
+
+        service.drain();
+
+        verify(pusher, times(5)).sendNotificationToUser(anyLong(), any(Notification.class));
+        verify(pusher).sendNotificationToUser(eq(21L), any(Notification.class));
+        verify(outboxMapper).deleteByIds(List.of(1L, 2L));
+        verify(outboxMapper).deleteByIds(List.of(3L));
+        verify(outboxMapper, times(2)).claimBatch(2);
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, service.getStats().getDelivered());
+    }
+
+    @Test
+    void failedEventsBackOffAndEventuallyDie() throws Exception {
+        doThrow(new IllegalStateException("broker down"))
+                .when(pusher).sendNotificationToUser(eq(10L), any());
+        when(outboxMapper.claimBatch(2))
+                .thenReturn(List.of(push(1L, 10L, 0), push(2L, 11L, 0)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(push(1L, 10L, 2)))
+                .thenReturn(List.of());
+
+        service.drain();
+        service.drain();
+
+        verify(outboxMapper).markFailed(eq(1L), eq(0), eq(2L), contains("broker down"));
+        verify(outboxMapper).markFailed(eq(1L), eq(2), eq(8L), contains("broker down"));
+        verify(outboxMapper).deleteByIds(List.of(2L));
+        assertEquals(2, service.getStats().getRetried());
+    }
+
+    @Test
+    void drainRequestedWhileDrainingRunsOnceMoreInsteadOfConcurrently() throws Exception {
+        // 第一次取批时模拟另一个调度线程上的唤醒
+        when(outboxMapper.claimBatch(2))
+                .thenAnswer(invocation -> {
+                    service.drain();
+                    return List.of(push(1L, 10L, 0));
+                })
+                .thenReturn(List.of(push(2L, 11L, 0)));
+
+        service.drain();
+
+        verify(outboxMapper, times(2)).claimBatch(2);
+        verify(outboxMapper).deleteByIds(List.of(1L));
+        verify(outboxMapper).deleteByIds(List.of(2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesOneEmailPerRowSoRetriesNeverResendOthers() throws Exception {
+        List<NewPostEmail> emails = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            emails.add(new NewPostEmail("friend" + i + "@example.com", "author", "title", 1L));
+        }
+
+        service.publishNewPostEmails(emails);
+
+        ArgumentCaptor<List<OutboxEvent>> rows = ArgumentCaptor.forClass(List.class);
+        verify(outboxMapper, times(2)).insertBatch(rows.capture());
+        List<OutboxEvent> written = rows.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(3, written.size());
+        for (int i = 0; i < 3; i++) {
+            List<NewPostEmail> payload = objectMapper.readValue(written.get(i).getPayload(),
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, NewPostEmail.class));
+            assertEquals(List.of(emails.get(i)), payload);
+        }
+    }
+
+    @Test
+    void smtpFailureKeepsTheEmailRowForRetry() throws Exception {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doThrow(new MailSendException("smtp down")).when(mailSender).send(any(MimeMessage.class));
+        EmailServiceImpl emailService = new EmailServiceImpl();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(emailService, "baseUrl", "http://localhost");
+        ReflectionTestUtils.setField(service, "emailService", emailService);
+
+        OutboxEvent event = new OutboxEvent();
+        event.setOutboxId(1L);
+        event.setEventType(OutboxServiceImpl.NEW_POST_EMAIL);
+        event.setPayload(objectMapper.writeValueAsString(
+                List.of(new NewPostEmail("friend@example.com", "author", "title", 5L))));
+        event.setAttempts(0);
+        when(outboxMapper.claimBatch(2)).thenReturn(List.of(event)).thenReturn(List.of());
+
+        service.drain();
+
+        verify(mailSender).send(any(MimeMessage.class));
+        verify(outboxMapper).markFailed(eq(1L), eq(0), eq(2L), contains("smtp down"));
+        verify(outboxMapper, never()).deleteByIds(anyList());
+        assertEquals(0, service.getStats().getDelivered());
+        assertEquals(1, service.getStats().getRetried());
+    }
+
+    private OutboxEvent fanOut(Long outboxId, Long... userIds) throws Exception {
+        List<Notification> notifications = new ArrayList<>();
+        for (Long userId : userIds) {
+            Notification notification = new Notification();
+            notification.setUserId(userId);
+            notifications.add(notification);
+        }
+        OutboxEvent event = new OutboxEvent();
+        event.setOutboxId(outboxId);
+        event.setEventType(OutboxServiceImpl.NOTIFICATION_PUSH);
+        event.setPayload(objectMapper.writeValueAsString(notifications));
+        event.setAttempts(0);
+        return event;
+    }
+
+    // 单个对象的负载（早先的格式）
+    private OutboxEvent push(Long outboxId, Long userId, int attempts) throws Exception {
+        Notification notification = new Notification();
+        notification.setNotificationId(outboxId + 100);
+        notification.setUserId(userId);
+        OutboxEvent event = new OutboxEvent();
+        event.setOutboxId(outboxId);
+        event.setEventType(OutboxServiceImpl.NOTIFICATION_PUSH);
+        event.setPayload(objectMapper.writeValueAsString(notification));
+        event.setAttempts(attempts);
+        return event;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gravity.ourmoments.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsWhetherTheKeyWasNew() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.add(-7L));
+
+        assertTrue(set.contains(42L));
+        assertTrue(set.contains(-7L));
+        assertFalse(set.contains(43L));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void growsPastTheInitialCapacityWithoutLosingKeys() {
+        LongHashSet set = new LongHashSet(2);
+        for (long id = 1; id <= 1000; id++) {
+            set.add(id * 1_000_003L);
+        }
+
+        assertEquals(1000, set.size());
+        for (long id = 1; id <= 1000; id++) {
+            assertTrue(set.contains(id * 1_000_003L));
+        }
+        assertFalse(set.contains(1001 * 1_000_003L));
+    }
+
+    @Test
+    void zeroIsStoredSeparatelyFromTheEmptySlotMarker() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0L));
+
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        for (long id = 1; id <= 20; id++) {
+            set.add(id);
+        }
+
+        assertTrue(set.contains(0L));
+        assertEquals(21, set.size());
+        assertEquals(0L, set.toArray()[0]);
+    }
+
+    @Test
+    void toArrayReturnsEveryKeyOnce() {
+        LongHashSet set = new LongHashSet();
+        for (long id : new long[]{5L, 3L, 0L, 5L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            set.add(id);
+        }
+
+        long[] keys = set.toArray();
+        Arrays.sort(keys);
+
+        assertArrayEquals(new long[]{Long.MIN_VALUE, 0L, 3L, 5L, Long.MAX_VALUE}, keys);
+    }
+
+    @Test
+    void emptySetHasNoKeys() {
+        LongHashSet set = new LongHashSet(0);
+
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.toArray().length);
+        assertFalse(set.contains(1L));
+    }
+}
@@ -0,0 +1,63 @@
+package com.gravity.ourmoments.util;
+
+import com.gravity.ourmoments.entity.BlogMedia;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaDiffTest {
+
+    @Test
+    void unchangedMediaProducesNoWrites() {
+        MediaDiff diff = MediaDiff.of(1L,
+                List.of(media(10L, 0, "1.50"), media(11L, 1, "1.00")),
+                List.of(media(10L, 0, "1.5"), media(11L, 1, "1")));
+
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    void matchesByIdAndSplitsIntoBatches() {
+        BlogMedia moved = media(10L, 0, "1.00");
+        moved.setPositionX(120);
+        BlogMedia added = media(null, 2, "1.00");
+
+        MediaDiff diff = MediaDiff.of(1L,
+                List.of(media(10L, 0, "1.00"), media(11L, 1, "1.00")),
+                List.of(moved, added));
+
+        assertEquals(List.of(moved), diff.getUpdates());
+        assertEquals(List.of(added), diff.getInserts());
+        assertEquals(List.of(11L), diff.getDeletedIds());
+        assertEquals(1L, added.getPostId());
+    }
+
+    @Test
+    void foreignOrDuplicateIdsAreInsertedAsNew() {
+        BlogMedia foreign = media(99L, 0, "1.00");
+        BlogMedia first = media(10L, 1, "1.00");
+        BlogMedia copy = media(10L, 1, "1.00");
+
+        MediaDiff diff = MediaDiff.of(1L, List.of(media(10L, 1, "1.00")), List.of(foreign, first, copy));
+
+        assertEquals(List.of(foreign, copy), diff.getInserts());
+        assertNull(foreign.getMediaId());
+        assertNull(copy.getMediaId());
+        assertTrue(diff.getUpdates().isEmpty());
+        assertTrue(diff.getDeletedIds().isEmpty());
+    }
+
+    private static BlogMedia media(Long mediaId, int sortOrder, String scale) {
+        BlogMedia media = new BlogMedia();
+        media.setMediaId(mediaId);
+        media.setMediaUrl("/uploads/" + sortOrder + ".jpg");
+        media.setMediaType("IMAGE");
+        media.setRotation(0);
+        media.setScale(new BigDecimal(scale));
+        media.setSortOrder(sortOrder);
+        return media;
+    }
+}